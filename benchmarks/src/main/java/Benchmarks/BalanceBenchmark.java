@@ -0,0 +1,61 @@
+package Benchmarks;
+
+import Model.ParticipantTable;
+import Model.Team;
+import Service.GreedyFormationStrategy;
+import Service.ScoringEngine;
+import Service.SkillBalancer;
+import Service.TeamBuilder;
+import Service.TeamRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The skill-balancing phase (TeamBuilder.balanceSkills) on compliant teams from a real formation. The
+// balancer runs a fixed number of rounds instead of its time budget, so every operation does the same
+// work; each invocation gets a fresh copy of the teams because balancing swaps their members.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BalanceBenchmark {
+
+    private static final int TEAM_SIZE = 5;
+    private static final int ROUNDS = 200;
+
+    @Param({"10000", "100000"})
+    public int participants;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private List<Team> formed;
+    private List<Team> teams;
+
+    @Setup(Level.Trial)
+    public void form() {
+        ParticipantTable table = BenchmarkData.table(participants, BenchmarkData.SEED);
+        TeamBuilder builder = new TeamBuilder(table, TEAM_SIZE, new GreedyFormationStrategy(), null);
+        builder.replay(new TeamBuilder.ReplayCode("greedy", TEAM_SIZE, BenchmarkData.SEED, 1));
+
+        formed = new ArrayList<>();
+        for (Team team : builder.getAllTeams()) {
+            if (TeamRules.isCompliant(team.getComposition(), TEAM_SIZE)) formed.add(team);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyTeams() {
+        teams = BenchmarkData.copy(formed);
+    }
+
+    @Benchmark
+    public SkillBalancer.BalanceReport balanceSkills() {
+        ScoringEngine engine = parallel ? ScoringEngine.shared() : null;
+        return new SkillBalancer(0, ROUNDS, BenchmarkData.SEED, engine).balance(teams, TeamRules::keepsRulesAfterSwap);
+    }
+}
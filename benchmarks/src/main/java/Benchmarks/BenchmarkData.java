@@ -0,0 +1,83 @@
+package Benchmarks;
+
+import Model.Participant;
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Seeded participants shaped like partcipant_200_.csv: six games, skill 1–10, any role, and leaders,
+// balanced players and thinkers in equal thirds with scores in the classifier's range for their type.
+// The same seed always gives the same rows, so runs compare like with like.
+public final class BenchmarkData {
+
+    public static final long SEED = 42;
+
+    private static final String[] GAMES = {"Valorant", "FIFA", "Chess", "DOTA 2", "CS:GO", "Basketball"};
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final PersonalityType[] TYPES =
+            {PersonalityType.LEADER, PersonalityType.BALANCED, PersonalityType.THINKER};
+
+    private BenchmarkData() {
+
+    }
+
+    public static ParticipantTable table(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ParticipantTable table = new ParticipantTable(size);
+        for (int i = 1; i <= size; i++) {
+            PersonalityType type = TYPES[random.nextInt(TYPES.length)];
+            table.add("P" + i, "Participant_" + i, "user" + i + "@university.edu",
+                    GAMES[random.nextInt(GAMES.length)], 1 + random.nextInt(10),
+                    ROLES[random.nextInt(ROLES.length)], score(type, random), type);
+        }
+        return table;
+    }
+
+    // CSV rows (without the header) for the same participants
+    public static String[] csvLines(int count, long seed) {
+        ParticipantTable table = table(count, seed);
+        String[] lines = new String[count];
+        for (int row = 0; row < count; row++) {
+            lines[row] = String.join(",", table.id(row), table.name(row), table.email(row),
+                    table.gameName(table.game(row)), String.valueOf(table.skill(row)), table.role(row).name(),
+                    String.valueOf(table.score(row)), table.personality(row).name());
+        }
+        return lines;
+    }
+
+    // Teams of the given size dealt from the table in row order
+    public static List<Team> teams(ParticipantTable table, int teamSize) {
+        List<Team> teams = new ArrayList<>();
+        for (int from = 0; from + teamSize <= table.size(); from += teamSize) {
+            Team team = new Team(teams.size() + 1);
+            for (int row = from; row < from + teamSize; row++) team.addMember(table.participant(row));
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    // Fresh teams with the same members, for benchmarks that rearrange their input
+    public static List<Team> copy(List<Team> teams) {
+        List<Team> copies = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            Team copy = new Team(team.getTeam_id());
+            for (Participant member : team.getParticipantList()) copy.addMember(member);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    // PersonalityClassifier: 90+ leader, 70–89 balanced, 50–69 thinker
+    private static int score(PersonalityType type, SplittableRandom random) {
+        return switch (type) {
+            case LEADER -> 90 + random.nextInt(11);
+            case BALANCED -> 70 + random.nextInt(20);
+            default -> 50 + random.nextInt(20);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package Benchmarks;
+
+import Model.ParticipantTable;
+import Model.Team;
+import Service.GreedyFormationStrategy;
+import Service.TeamBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// A full TeamBuilder.formTeams: greedy formation, overflow teams, skill balancing and the open-slot index,
+// with and without the fork-join pool. It runs through replay() with a fixed seed and round count, so the
+// balancer's time budget does not decide how much work an operation does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FormationBenchmark {
+
+    private static final int TEAM_SIZE = 5;
+    private static final int BALANCE_ROUNDS = 50;
+
+    @Param({"200", "10000", "100000", "1000000"})
+    public int participants;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private ParticipantTable table;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = BenchmarkData.table(participants, BenchmarkData.SEED);
+        pool = parallel ? new ForkJoinPool() : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Team> formTeams() {
+        TeamBuilder builder = new TeamBuilder(table, TEAM_SIZE, new GreedyFormationStrategy(pool), pool);
+        return builder.replay(new TeamBuilder.ReplayCode("greedy", TEAM_SIZE, BenchmarkData.SEED, BALANCE_ROUNDS));
+    }
+}
@@ -0,0 +1,38 @@
+package Benchmarks;
+
+import Model.Participant;
+import Service.CSVHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// CSVHandler.parseLineToParticipant: split, trim, number parsing and enum lookup of one CSV row
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final int LINES = 1024;
+
+    private CSVHandler handler;
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        handler = new CSVHandler();
+        lines = BenchmarkData.csvLines(LINES, BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseLineToParticipant(Blackhole blackhole) throws Exception {
+        for (String line : lines) {
+            Participant participant = handler.parseLineToParticipant(line);
+            blackhole.consume(participant);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Benchmarks;
+
+import Model.Participant;
+import Model.ParticipantTable;
+import Model.Team;
+import Service.TeamRules;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The per-candidate rule checks and the team average. The rule methods are timed over a rotating set of
+// teams and candidates, so branch prediction cannot learn one fixed answer.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RulesBenchmark {
+
+    private static final int TEAMS = 1024;
+
+    @Param({"5", "10"})
+    public int teamSize;
+
+    private Team[] teams;
+    private Participant[] candidates;
+
+    @Setup
+    public void setUp() {
+        ParticipantTable table = BenchmarkData.table(TEAMS * (teamSize + 1), BenchmarkData.SEED);
+        List<Team> dealt = BenchmarkData.teams(table, teamSize);
+        teams = dealt.subList(0, TEAMS).toArray(new Team[0]);
+
+        candidates = new Participant[TEAMS];
+        for (int i = 0; i < TEAMS; i++) candidates[i] = table.participant(TEAMS * teamSize + i);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEAMS)
+    public void breaksRules(Blackhole blackhole) {
+        for (int i = 0; i < TEAMS; i++) {
+            blackhole.consume(TeamRules.breaksRules(teams[i].getComposition(), candidates[i]));
+        }
+    }
+
+    // Swapping a candidate in for the team's first member
+    @Benchmark
+    @OperationsPerInvocation(TEAMS)
+    public void keepsRulesAfterSwap(Blackhole blackhole) {
+        for (int i = 0; i < TEAMS; i++) {
+            Team team = teams[i];
+            blackhole.consume(TeamRules.keepsRulesAfterSwap(team.getComposition(),
+                    team.getParticipantList().get(0), candidates[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEAMS)
+    public void calculateAvgSkill(Blackhole blackhole) {
+        for (Team team : teams) blackhole.consume(team.CalculateAvgSkill());
+    }
+}
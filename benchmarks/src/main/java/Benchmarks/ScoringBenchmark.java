@@ -0,0 +1,96 @@
+package Benchmarks;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.TeamComposition;
+import Service.CandidateIndex;
+import Service.ScoringEngine;
+import Service.TeamRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Picking the best candidate for a partly filled team. candidateIndex is the bucketed lookup the greedy
+// engine runs for each pick, which scores one row per bucket instead of every row. sequential and parallel
+// price every candidate through ScoringEngine.forEach on a one-thread and a machine-sized engine and then
+// take the best in index order, the way SkillBalancer prices its sampled swaps each round.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final PersonalityType[] TYPES = PersonalityType.values();
+
+    @Param({"256", "4096", "65536"})
+    public int candidates;
+
+    private ParticipantTable table;
+    private TeamComposition team;
+    private CandidateIndex index;
+    private ScoringEngine sequential;
+    private ScoringEngine parallel;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        table = BenchmarkData.table(candidates + 3, BenchmarkData.SEED);
+
+        // A leader plus two members, so every rule still has something to reject
+        team = new TeamComposition();
+        for (int row = candidates; row < candidates + 3; row++) team.add(table, row);
+
+        int[] rows = new int[candidates];
+        for (int row = 0; row < candidates; row++) rows[row] = row;
+        index = new CandidateIndex(table, rows);
+
+        sequential = new ScoringEngine(1);
+        parallel = new ScoringEngine(Runtime.getRuntime().availableProcessors());
+        scores = new double[candidates];
+    }
+
+    // Each trial builds its own engines, so their workers must not outlive it
+    @TearDown
+    public void tearDown() {
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    @Benchmark
+    public int sequential() {
+        sequential.forEach(candidates, this::price);
+        return best();
+    }
+
+    @Benchmark
+    public int parallel() {
+        parallel.forEach(candidates, this::price);
+        return best();
+    }
+
+    @Benchmark
+    public int candidateIndex() {
+        return index.findBest(
+                type -> !TeamRules.personalityFull(team, TYPES[type]),
+                game -> team.countGame(game) < TeamRules.MAX_SAME_GAME,
+                row -> TeamRules.calculateScore(team, table, row));
+    }
+
+    // Score of one candidate, or NaN if the team cannot take them
+    private void price(int row) {
+        boolean legal = !TeamRules.personalityFull(team, table.personality(row))
+                && team.countGame(table.game(row)) < TeamRules.MAX_SAME_GAME;
+        scores[row] = legal ? TeamRules.calculateScore(team, table, row) : Double.NaN;
+    }
+
+    // Highest score, earliest row on ties
+    private int best() {
+        int best = CandidateIndex.NONE;
+        for (int row = 0; row < candidates; row++) {
+            if (!Double.isNaN(scores[row]) && (best == CandidateIndex.NONE || scores[row] > scores[best])) best = row;
+        }
+        return best;
+    }
+}
@@ -2,12 +2,16 @@ import Model.*;
 import Service.*;
 import Exception.*;
 import Utility.Logger;
+import Utility.MetricsRegistry;
 
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
 public class Main {
@@ -15,19 +19,26 @@ public class Main {
     private static final Scanner scanner = new Scanner(System.in);
     private static final PersonalityClassifier classifier = new PersonalityClassifier();
     private static final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private static final ForkJoinPool formationPool = new ForkJoinPool(); // one worker per core for sharded formation
     private static final CSVHandler csvHandler = new CSVHandler();
 
-    private static List<Participant> allParticipants = null;
     private static TeamBuilder teamBuilder = null;
     private static List<Team> formedTeams = null;
 
+    private static final int LOG_BUFFER_EVENTS = 8192;
+    private static final String METRICS_FILE = "logs/metrics.txt";
+
     private static int currentTeamSize = 5;
+    private static TeamFormationStrategy currentStrategy = new GreedyFormationStrategy(formationPool);
 
     // ====================================================================================
     // MAIN
     // ====================================================================================
     public static void main(String[] args) {
-        Logger.initialize();
+        // Worker threads log from hot loops, so lines go through the asynchronous logger; BLOCK keeps every line.
+        // Levels default to INFO (per-range reader lines are DEBUG); override with -Dlog.level / -Dlog.level.<category>
+        Logger.initializeAsync(LOG_BUFFER_EVENTS, Logger.OverflowPolicy.BLOCK);
+        MetricsRegistry.registerMBean();
         Logger.info("Application started by user");
 
         while (true) {
@@ -52,6 +63,8 @@ public class Main {
 
         scanner.close();
         executor.shutdownNow();
+        formationPool.shutdownNow();
+        CSVHandler.closeJournal(); // flushes any queued registrations
         Logger.close();
     }
 
@@ -135,20 +148,17 @@ public class Main {
 
             // Auto-assign to team if teams already exist
             if (teamBuilder != null && formedTeams != null) {
-                Team fittingTeam = teamBuilder.findSuitableTeam(participant);
-
-                if (fittingTeam != null) {
-                    fittingTeam.addMember(participant);
-                    Logger.info("Participant " + id + " added to Team " + fittingTeam.getTeam_id());
+                Team fittingTeam = teamBuilder.placeParticipant(participant);
+                if (fittingTeam.getParticipantList().size() == 1) {
+                    formedTeams = teamBuilder.getAllTeams(); // picks up the newly started overflow team
                 }
+                Logger.info("Participant " + id + " added to Team " + fittingTeam.getTeam_id());
             }
 
             // Save to CSV
             csvHandler.addToCSV(participant);
             Logger.info("Participant " + id + " saved to CSV");
 
-            allParticipants = null; // forces reload later
-
             System.out.println("Registered and saved to CSV!");
 
         } catch (Exception e) {
@@ -194,11 +204,12 @@ public class Main {
             System.out.println("2. View Teams");
             System.out.println("3. Remove Participant from Team");
             System.out.println("4. Export Teams to CSV");
-            System.out.println("5. Back");
+            System.out.println("5. Dump Metrics");
+            System.out.println("6. Back");
 
-            int c = InputValidator.getUserInput("Choose (1–5): ", 1, 5);
+            int c = InputValidator.getUserInput("Choose (1–6): ", 1, 6);
 
-            if (c == 5) {
+            if (c == 6) {
                 Logger.info("User exited Organizer Menu");
                 break;
             }
@@ -208,6 +219,7 @@ public class Main {
                 else if (c == 2) viewTeams();
                 else if (c == 3) removeParticipant();
                 else if (c == 4) exportTeams();
+                else if (c == 5) dumpMetrics();
             } catch (Exception e) {
                 Logger.error("Error in organizerMenu: " + e.getMessage());
                 System.out.println("Error: " + e.getMessage());
@@ -225,49 +237,103 @@ public class Main {
             return;
         }
 
-        System.out.println("\nTeam Size Configuration:");
-        System.out.println("  - Minimum: 2 members");
-        System.out.println("  - Maximum: 10 members");
-        System.out.println("  - Current default: " + currentTeamSize);
+        // A replay code fixes the engine and team size itself; otherwise ask for them and for the passes to try
+        String replayCode = InputValidator.getInput("Enter replay code to reproduce earlier teams (or press Enter to skip): ");
+        int teamSize;
+        int starts = 1;
+        if (!replayCode.isEmpty()) {
+            TeamBuilder.ReplayCode code;
+            try {
+                code = TeamBuilder.ReplayCode.parse(replayCode);
+                currentStrategy = TeamFormationStrategy.forKey(code.engine(), formationPool);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Invalid replay code: " + e.getMessage());
+                return;
+            }
+            teamSize = code.teamSize();
+            currentTeamSize = teamSize;
+            System.out.println("Replaying with the " + currentStrategy.name() + " engine and teams of " + teamSize);
+        } else {
+            replayCode = null;
+
+            System.out.println("\nTeam Size Configuration:");
+            System.out.println("  - Minimum: 2 members");
+            System.out.println("  - Maximum: 10 members");
+            System.out.println("  - Current default: " + currentTeamSize);
 
-        int teamSize = InputValidator.getUserInput(
-                "Enter desired team size (3–10, or 0 to use default): ",
-                0, 10
-        );
+            teamSize = InputValidator.getUserInput(
+                    "Enter desired team size (3–10, or 0 to use default): ",
+                    0, 10
+            );
 
-        if (teamSize == 0) {
-            teamSize = currentTeamSize;
-        } else {
-            currentTeamSize = teamSize;
+            if (teamSize == 0) {
+                teamSize = currentTeamSize;
+            } else {
+                currentTeamSize = teamSize;
+            }
+
+            System.out.println("\nFormation Engine:");
+            System.out.println("  1. Greedy (leader-first, fastest)");
+            System.out.println("  2. Min-cost flow (fewer overflow teams on large inputs)");
+            System.out.println("  - Current: " + currentStrategy.name());
+
+            int engine = InputValidator.getUserInput("Choose engine (1–2, or 0 to keep current): ", 0, 2);
+            if (engine == 1) {
+                currentStrategy = new GreedyFormationStrategy(formationPool);
+            } else if (engine == 2) {
+                currentStrategy = new FlowFormationStrategy(formationPool);
+            }
+
+            starts = InputValidator.getUserInput("Number of randomized passes to try (1–32): ", 1, 32);
         }
 
+        // Streaming is opt-in: it reads the CSV itself (no snapshot) and its teams cannot be replayed
+        boolean stream = false;
+        if (replayCode == null && starts == 1) {
+            String answer = InputValidator.getInput("Stream the file straight into formation? No snapshot or replay code (y/N): ");
+            stream = answer.equalsIgnoreCase("y") || answer.equalsIgnoreCase("yes");
+        }
+        Logger.info("Formation engine: " + currentStrategy.name());
+
         System.out.println("\nReading CSV and forming teams in background...");
 
         try {
             final int finalTeamSize = teamSize;
+            final TeamFormationStrategy strategy = currentStrategy;
+            final int finalStarts = starts;
+            final String finalReplayCode = replayCode;
+
+            if (stream) {
+                executor.submit(() -> {
+                    try {
+                        StreamingFormationPipeline pipeline =
+                                new StreamingFormationPipeline(path, finalTeamSize, strategy, formationPool, 3);
+                        TeamBuilder builder = pipeline.call();
+                        System.out.println(" Imported " + pipeline.getReport().summary());
+                        teamsReady(builder);
+                    } catch (Exception e) {
+                        Logger.error("Team formation failed: " + e.getMessage());
+                    }
+                });
+                return;
+            }
 
             // File reading task
-            Future<List<Participant>> futureParticipants =
-                    executor.submit(new ParallelFileReadCallable(path, executor, 4));
+            Future<ParticipantTable> futureParticipants =
+                    executor.submit(() -> csvHandler.loadParticipants(path, executor, 4));
 
             // Async continuation task
             executor.submit(() -> {
                 try {
-                    List<Participant> participants = futureParticipants.get();
+                    ParticipantTable participants = futureParticipants.get();
+                    ImportReport report = csvHandler.getLastImportReport();
+                    if (report != null) System.out.println(" Imported " + report.summary());
 
                     ParallelTeamFormationCallable formation =
-                            new ParallelTeamFormationCallable(participants, finalTeamSize, executor);
+                            new ParallelTeamFormationCallable(participants, finalTeamSize, strategy, formationPool,
+                                    finalStarts, finalReplayCode);
 
-                    TeamBuilder builder = formation.call();
-
-                    synchronized (Main.class) {
-                        allParticipants = participants;
-                        teamBuilder = builder;
-                        formedTeams = builder.getAllTeams();
-                    }
-
-                    Logger.info("Teams are ready!");
-                    System.out.println("\n>>> TEAMS ARE READY! <<<\n");
+                    teamsReady(formation.call());
 
                 } catch (Exception e) {
                     Logger.error("Team formation failed: " + e.getMessage());
@@ -280,6 +346,17 @@ public class Main {
         }
     }
 
+    // Publishes freshly formed teams to the menu actions
+    private static void teamsReady(TeamBuilder builder) {
+        synchronized (Main.class) {
+            teamBuilder = builder;
+            formedTeams = builder.getAllTeams();
+        }
+
+        Logger.info("Teams are ready!");
+        System.out.println("\n>>> TEAMS ARE READY! <<<\n");
+    }
+
     // ====================================================================================
     // VIEW TEAMS
     // ====================================================================================
@@ -316,36 +393,42 @@ public class Main {
         }
 
         String id = InputValidator.getInput("Enter Participant ID to remove: ");
-        boolean removed = false;
 
-        for (int i = 0; i < allParticipants.size(); i++) {
-            if (allParticipants.get(i).getId().equalsIgnoreCase(id)) {
-                allParticipants.remove(i);
-                removed = true;
-                break;
-            }
+        // Only the participant's own team is repaired; every other team keeps its members
+        RemovalResult removal;
+        synchronized (Main.class) {
+            removal = teamBuilder.removeParticipant(id);
+            if (removal != null) formedTeams = teamBuilder.getAllTeams(); // teams may have moved or gone
         }
 
-        if (!removed) {
+        if (removal == null) {
             Logger.warning("Participant not found: " + id);
             System.out.println("Participant not found.");
             return;
         }
 
-        Logger.info("Participant " + id + " removed successfully");
-        System.out.println("Participant removed.");
+        int teamId = removal.team().getTeam_id();
+        Logger.info("Participant " + id + " removed from Team " + teamId);
+        if (removal.replacement() != null) {
+            Participant replacement = removal.replacement();
+            Logger.info(replacement.getId() + " moved into Team " + teamId + " to fill the slot");
+            System.out.println("Participant removed. " + replacement.getName() + " (" + replacement.getId()
+                    + ") moved into Team " + teamId + ".");
+        } else if (removal.team().getParticipantList().isEmpty()) {
+            System.out.println("Participant removed. Team " + teamId + " is now empty and was dropped.");
+        } else {
+            Logger.warning("No replacement fits Team " + teamId + "; it is now an overflow team");
+            System.out.println("Participant removed. No one fits Team " + teamId + ", so it is now an overflow team.");
+        }
 
-        // Update CSV
+        // Record the deletion with a tombstone row instead of rewriting the CSV
         try {
-            csvHandler.exportUnassignedUser("participants_sample.csv", allParticipants);
-            Logger.info("CSV updated after participant removal");
+            csvHandler.removeFromCSV(removal.removed().getId());
+            Logger.info("Tombstone appended for " + removal.removed().getId());
         } catch (IOException e) {
             Logger.error("Failed to update CSV: " + e.getMessage());
             System.out.println("Warning: Could not update CSV.");
         }
-
-        // Rebuild teams cleanly
-        reformTeams();
     }
 
     private static void exportTeams() throws InvalidCSVFilePathException {
@@ -357,18 +440,18 @@ public class Main {
             return;
         }
 
-        System.out.print("Enter output CSV file path (e.g., file.csv): ");
+        System.out.print("Enter output CSV file path (e.g., file.csv, or file.csv.gz to compress): ");
         String path = scanner.nextLine().trim();
 
         if (path.isEmpty()) {
             System.out.println("Using default file: teams_output.csv");
             path = "teams_output.csv";
-        } else if (!path.endsWith(".csv")) {
-            throw new InvalidCSVFilePathException("CSV files must end with '.csv'.");
+        } else if (!CSVHandler.isCSVPath(path)) {
+            throw new InvalidCSVFilePathException("CSV files must end with '.csv' or '.csv.gz'.");
         }
 
         try {
-            csvHandler.toCSV(path, formedTeams);
+            csvHandler.toCSV(path, formedTeams, formationPool, formationPool.getParallelism());
             Logger.info("Teams exported to: " + path);
             System.out.println("Exported to " + path);
         } catch (IOException e) {
@@ -377,27 +460,24 @@ public class Main {
         }
     }
 
-    private static void reformTeams() {
-        if (allParticipants == null || allParticipants.isEmpty()) {
-            Logger.warning("No participants to reform teams");
-            System.out.println("No participants available.");
-            return;
-        }
-
-        teamBuilder = new TeamBuilder(allParticipants, currentTeamSize);
-        formedTeams = teamBuilder.formTeams();
+    private static void dumpMetrics() {
+        System.out.print("Enter metrics file path (default: " + METRICS_FILE + "): ");
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty()) path = METRICS_FILE;
 
-        Logger.info("Teams reformed: " + formedTeams.size() + " team(s)");
-        System.out.println("Teams re-formed successfully! " + formedTeams.size() + " team(s).");
+        try {
+            MetricsRegistry.dump(Path.of(path));
+            Logger.info("Metrics dumped to: " + path);
+            System.out.println("Metrics written to " + path);
+        } catch (IOException | InvalidPathException e) {
+            Logger.error("Metrics dump failed: " + e.getMessage());
+            System.out.println("Metrics dump failed: " + e.getMessage());
+        }
     }
 
     private static Team findTeamByParticipantId(String id) {
-        if (formedTeams == null) return null;
-
-        for (Team team : formedTeams) {
-            Participant match = team.containsParticipant(id);
-            if (match != null) return team;
+        synchronized (Main.class) {
+            return teamBuilder == null ? null : teamBuilder.findTeam(id); // indexed by member ID
         }
-        return null;
     }
 }
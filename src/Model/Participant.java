@@ -1,11 +1,18 @@
 package Model;
 
+import Utility.SymbolTable;
+
 public class Participant {
 
+    // Shared dictionary for preferred games; every participant carries its game's id so rule checks
+    // count ints instead of comparing strings
+    public static final SymbolTable GAME_SYMBOLS = new SymbolTable();
+
     private String id;
     private String email;
     private String name;
     private String preferredGame;
+    private int gameId;
     private Integer skillLevel;
     private RoleType preferredRole;
     private Integer personalityScore;
@@ -24,7 +31,7 @@ public class Participant {
         this.id = id;
         this.email = email;
         this.name = name;
-        this.preferredGame = preferredGame;
+        assignGame(preferredGame);
         this.skillLevel = skillLevel;
         this.preferredRole = preferredRole;
         this.personalityScore = personalityScore;
@@ -53,7 +60,18 @@ public class Participant {
     }
 
     public void setPreferredGame(String preferredGame) {
-        this.preferredGame = preferredGame;
+        assignGame(preferredGame);
+    }
+
+    // Private so the constructor does not call an overridable method
+    private void assignGame(String preferredGame) {
+        this.gameId = GAME_SYMBOLS.intern(preferredGame == null ? "" : preferredGame);
+        // Reuse the dictionary's copy so thousands of rows share one String per game
+        this.preferredGame = preferredGame == null ? null : GAME_SYMBOLS.name(gameId);
+    }
+
+    public int getGameId() {
+        return gameId;
     }
 
     public Integer getSkillLevel() {
@@ -0,0 +1,184 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// Column-per-field participant store. Formation runs on row numbers and reads the primitive columns,
+// so scoring never chases Participant pointers or unboxes Integers; Participant objects are only
+// built (once per row) when a team is materialized for display or export.
+public class ParticipantTable {
+
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size;
+
+    // Numeric and categorical columns
+    private int[] skill = new int[INITIAL_CAPACITY];
+    private int[] score = new int[INITIAL_CAPACITY];
+    private int[] game = new int[INITIAL_CAPACITY];
+    private byte[] role = new byte[INITIAL_CAPACITY];
+    private byte[] personality = new byte[INITIAL_CAPACITY];
+
+    // Text columns, only read when a row is materialized
+    private String[] id = new String[INITIAL_CAPACITY];
+    private String[] name = new String[INITIAL_CAPACITY];
+    private String[] email = new String[INITIAL_CAPACITY];
+
+    // Materialized rows (filled lazily, or up front when built from existing objects)
+    private Participant[] materialized = new Participant[INITIAL_CAPACITY];
+
+    public ParticipantTable() {
+    }
+
+    // Pre-sized for a known row count (e.g. from a snapshot header)
+    public ParticipantTable(int capacity) {
+        ensureCapacity(capacity);
+    }
+
+    public static ParticipantTable of(Collection<Participant> participants) {
+        ParticipantTable table = new ParticipantTable();
+        for (Participant participant : participants) {
+            int row = table.add(participant.getId(), participant.getName(), participant.getEmail(),
+                    participant.getGameId(), participant.getSkillLevel(), participant.getPreferredRole(),
+                    participant.getPersonalityScore(), participant.getPersonalityType());
+            table.materialized[row] = participant; // keep identity with the caller's objects
+        }
+        return table;
+    }
+
+    // Appends one row and returns its row number
+    public int add(String participantId, String participantName, String participantEmail, String preferredGame,
+                   int skillLevel, RoleType preferredRole, int personalityScore, PersonalityType personalityType) {
+        return add(participantId, participantName, participantEmail, Participant.GAME_SYMBOLS.intern(preferredGame),
+                skillLevel, preferredRole, personalityScore, personalityType);
+    }
+
+    // Same, for a game already encoded in Participant.GAME_SYMBOLS
+    public int add(String participantId, String participantName, String participantEmail, int gameId,
+                   int skillLevel, RoleType preferredRole, int personalityScore, PersonalityType personalityType) {
+        if (size == skill.length) grow();
+        int row = size++;
+        id[row] = participantId;
+        name[row] = participantName;
+        email[row] = participantEmail;
+        game[row] = gameId;
+        skill[row] = skillLevel;
+        role[row] = (byte) preferredRole.ordinal();
+        score[row] = personalityScore;
+        personality[row] = (byte) personalityType.ordinal();
+        return row;
+    }
+
+    // Appends every row of another table (e.g. one filled by a parallel reader worker), keeping their order
+    public void addAll(ParticipantTable other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.skill, 0, skill, size, other.size);
+        System.arraycopy(other.score, 0, score, size, other.size);
+        System.arraycopy(other.game, 0, game, size, other.size);
+        System.arraycopy(other.role, 0, role, size, other.size);
+        System.arraycopy(other.personality, 0, personality, size, other.size);
+        System.arraycopy(other.id, 0, id, size, other.size);
+        System.arraycopy(other.name, 0, name, size, other.size);
+        System.arraycopy(other.email, 0, email, size, other.size);
+        System.arraycopy(other.materialized, 0, materialized, size, other.size);
+        size += other.size;
+    }
+
+    // Every row as a Participant, for callers that still work on lists
+    public List<Participant> participants() {
+        List<Participant> participants = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) participants.add(participant(row));
+        return participants;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int skill(int row) {
+        return skill[row];
+    }
+
+    public int score(int row) {
+        return score[row];
+    }
+
+    public int game(int row) {
+        return game[row];
+    }
+
+    public int roleOrdinal(int row) {
+        return role[row];
+    }
+
+    public RoleType role(int row) {
+        return ROLES[role[row]];
+    }
+
+    public int personalityOrdinal(int row) {
+        return personality[row];
+    }
+
+    public PersonalityType personality(int row) {
+        return PERSONALITIES[personality[row]];
+    }
+
+    public String id(int row) {
+        return id[row];
+    }
+
+    public String name(int row) {
+        return name[row];
+    }
+
+    public String email(int row) {
+        return email[row];
+    }
+
+    // Number of distinct games known to the shared dictionary; every game id is below this
+    public int gameCount() {
+        return Participant.GAME_SYMBOLS.size();
+    }
+
+    public String gameName(int gameId) {
+        return Participant.GAME_SYMBOLS.name(gameId);
+    }
+
+    // Builds (once) the Participant object for a row. Synchronized because several formation passes
+    // may materialize teams from the same table at once, and each row must map to a single object.
+    public synchronized Participant participant(int row) {
+        Participant participant = materialized[row];
+        if (participant == null) {
+            participant = new Participant(id[row], name[row], email[row], gameName(game[row]),
+                    skill[row], ROLES[role[row]], score[row], PERSONALITIES[personality[row]]);
+            materialized[row] = participant;
+        }
+        return participant;
+    }
+
+    private void grow() {
+        ensureCapacity(skill.length * 2);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= skill.length) return;
+        capacity = Math.max(capacity, skill.length * 2);
+        skill = Arrays.copyOf(skill, capacity);
+        score = Arrays.copyOf(score, capacity);
+        game = Arrays.copyOf(game, capacity);
+        role = Arrays.copyOf(role, capacity);
+        personality = Arrays.copyOf(personality, capacity);
+        id = Arrays.copyOf(id, capacity);
+        name = Arrays.copyOf(name, capacity);
+        email = Arrays.copyOf(email, capacity);
+        materialized = Arrays.copyOf(materialized, capacity);
+    }
+}
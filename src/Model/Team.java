@@ -8,6 +8,7 @@ import java.util.List;
 public class Team {
     private Integer team_id;
     private final List<Participant> participantList;
+    private final TeamComposition composition = new TeamComposition(); // kept in step with participantList
 
     public Team(int teamId) {
         this.team_id = teamId;
@@ -19,7 +20,9 @@ public class Team {
     }
 
     public void removeMember(Participant p) {
-        participantList.remove(p);
+        if (participantList.remove(p)) {
+            composition.remove(p);
+        }
     }
 
     public List<Participant> getParticipantList() {
@@ -28,6 +31,11 @@ public class Team {
 
     public void addMember(Participant participant){
         participantList.add(participant);
+        composition.add(participant);
+    }
+
+    public TeamComposition getComposition() {
+        return composition;
     }
 
     public Participant containsParticipant(String Id) {
@@ -40,10 +48,7 @@ public class Team {
     }
 
     public double CalculateAvgSkill() {
-        return participantList.stream()
-                .mapToInt(Participant::getSkillLevel)
-                .average()
-                .orElse(0.0);
+        return composition.avgSkill();
     }
 
 
@@ -0,0 +1,133 @@
+package Model;
+
+import java.util.Arrays;
+
+// Running summary of who is in a team, updated on every add/remove so rule checks never rescan the members
+public class TeamComposition {
+
+    // Games present in the team as parallel (id, count) arrays; a team holds at most a handful
+    // of distinct games, so a linear scan beats hashing and nothing is boxed
+    private int[] gameIds = new int[4];
+    private int[] gameCounts = new int[4];
+    private int distinctGames;
+    private final int[] personalityCounts = new int[PersonalityType.values().length];
+    private final int[] roleCounts = new int[RoleType.values().length];
+    private int roleMask;  // bit i set while at least one member plays RoleType.values()[i]
+    private int skillSum;
+    private int size;
+
+    public void add(Participant participant) {
+        add(participant.getGameId(), participant.getPersonalityType().ordinal(),
+                participant.getPreferredRole().ordinal(), participant.getSkillLevel());
+    }
+
+    public void remove(Participant participant) {
+        remove(participant.getGameId(), participant.getPersonalityType().ordinal(),
+                participant.getPreferredRole().ordinal(), participant.getSkillLevel());
+    }
+
+    // Row-based variants used while teams are still being formed on a ParticipantTable
+    public void add(ParticipantTable table, int row) {
+        add(table.game(row), table.personalityOrdinal(row), table.roleOrdinal(row), table.skill(row));
+    }
+
+    public void remove(ParticipantTable table, int row) {
+        remove(table.game(row), table.personalityOrdinal(row), table.roleOrdinal(row), table.skill(row));
+    }
+
+    private void add(int game, int personality, int role, int skill) {
+        int slot = gameSlot(game);
+        if (slot < 0) {
+            if (distinctGames == gameIds.length) {
+                gameIds = Arrays.copyOf(gameIds, distinctGames * 2);
+                gameCounts = Arrays.copyOf(gameCounts, distinctGames * 2);
+            }
+            slot = distinctGames++;
+            gameIds[slot] = game;
+            gameCounts[slot] = 0;
+        }
+        gameCounts[slot]++;
+        personalityCounts[personality]++;
+        if (roleCounts[role]++ == 0) roleMask |= 1 << role;
+        skillSum += skill;
+        size++;
+    }
+
+    private void remove(int game, int personality, int role, int skill) {
+        int slot = gameSlot(game);
+        if (slot >= 0 && --gameCounts[slot] == 0) {
+            // Move the last entry into the freed slot
+            distinctGames--;
+            gameIds[slot] = gameIds[distinctGames];
+            gameCounts[slot] = gameCounts[distinctGames];
+        }
+        personalityCounts[personality]--;
+        if (--roleCounts[role] == 0) roleMask &= ~(1 << role);
+        skillSum -= skill;
+        size--;
+    }
+
+    // Members playing the game with this id (see Participant.GAME_SYMBOLS)
+    public int countGame(int game) {
+        int slot = gameSlot(game);
+        return slot < 0 ? 0 : gameCounts[slot];
+    }
+
+    // Highest number of members sharing one game
+    public int maxGameCount() {
+        int max = 0;
+        for (int i = 0; i < distinctGames; i++) max = Math.max(max, gameCounts[i]);
+        return max;
+    }
+
+    // Ids of the games at least `count` members share, in ascending order
+    public int[] gamesWithAtLeast(int count) {
+        int[] games = new int[distinctGames];
+        int found = 0;
+        for (int i = 0; i < distinctGames; i++) {
+            if (gameCounts[i] >= count) games[found++] = gameIds[i];
+        }
+        games = Arrays.copyOf(games, found);
+        Arrays.sort(games);
+        return games;
+    }
+
+    public int countPersonality(PersonalityType type) {
+        return personalityCounts[type.ordinal()];
+    }
+
+    public boolean hasRole(RoleType role) {
+        return (roleMask & (1 << role.ordinal())) != 0;
+    }
+
+    public int countRole(RoleType role) {
+        return roleCounts[role.ordinal()];
+    }
+
+    public int distinctRoles() {
+        return Integer.bitCount(roleMask);
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    public int getSkillSum() {
+        return skillSum;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double avgSkill() {
+        return size == 0 ? 0.0 : (double) skillSum / size;
+    }
+
+    private int gameSlot(int game) {
+        for (int i = 0; i < distinctGames; i++) {
+            if (gameIds[i] == game) return i;
+        }
+        return -1;
+    }
+}
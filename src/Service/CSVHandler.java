@@ -3,48 +3,146 @@ package Service;
 
 import Exception.InvalidSurveyDataException;
 import Model.Participant;
-import Model.PersonalityType;
-import Model.RoleType;
+import Model.ParticipantTable;
 import Model.Team;
 import Utility.CSVService;
+import Utility.GzipFiles;
+import Utility.Logger;
 import Exception.InvalidCSVFilePathException;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 public class CSVHandler implements CSVService {
 
     private static final String PARTICIPANTS_FILE = "participants_sample.csv"; // main storage file
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    // Group commit for registrations: rows per batch, and how long the writer waits to fill a batch
+    private static final int DEFAULT_JOURNAL_BATCH_ROWS = 128;
+    private static final long DEFAULT_JOURNAL_LINGER_MS = 2;
+    private static RegistrationJournal journal; // shared by every handler, created on first registration
+    private static int journalBatchRows = DEFAULT_JOURNAL_BATCH_ROWS;
+    private static long journalLingerMillis = DEFAULT_JOURNAL_LINGER_MS;
+
+    // The master file is a log of rows and tombstones (see ParticipantLog); it is compacted in the
+    // background once this share of its lines is dead
+    private static final double COMPACTION_DEAD_RATIO = 0.25;
+    private static final int COMPACTION_MIN_DEAD_LINES = 256;
+    private static LogCompactor compactor;
+
+    private volatile ImportReport lastImportReport;
 
     @Override
     public boolean containsID(String id) throws InvalidSurveyDataException, IOException {
-        return readCSV(PARTICIPANTS_FILE).stream()
-                .anyMatch(p -> p.getId().equals(id)); // quick existence check without loading full structure
+        return ParticipantIdIndex.forFile(PARTICIPANTS_FILE).contains(id); // indexed, never re-reads the CSV
     }
 
+    // Bad rows never abort a read: they are quarantined and counted (see getLastImportReport)
     @Override
     public List<Participant> readCSV(String path) throws IOException, InvalidSurveyDataException {
-        List<Participant> list = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            reader.readLine(); // skip header
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue; // ignore spacing / empty rows
-                list.add(parseLineToParticipant(line)); // centralised validation + mapping
+        return readTable(path).participants();
+    }
+
+    @Override
+    public ParticipantTable readTable(String path) throws IOException, InvalidSurveyDataException {
+        ParallelFileReadCallable importer = new ParallelFileReadCallable(path, null, 1);
+        try (BufferedReader reader = openReader(path)) {
+            ParticipantTable table = importer.readLines(reader); // same parser, tombstones and quarantine as the parallel reader
+            lastImportReport = importer.getReport();
+            return table;
+        }
+    }
+
+    // Counts of the last readCSV, readTable or loadParticipants on this handler, or null before one finished
+    public ImportReport getLastImportReport() {
+        return lastImportReport;
+    }
+
+    // Binary snapshot of a table (see ParticipantSnapshot), much faster to load than the CSV
+    public ParticipantTable importSnapshot(String path) throws IOException {
+        return ParticipantSnapshot.read(Path.of(path));
+    }
+
+    public void exportSnapshot(String path, ParticipantTable table) throws IOException {
+        ParticipantSnapshot.write(table, Path.of(path));
+    }
+
+    // Loads a participants CSV, preferring its snapshot (<csv>.snap) when that was written from exactly this
+    // version of the CSV (same size and modification time). After a CSV parse the snapshot is refreshed,
+    // stamped with the CSV as it was before the parse, so rows appended meanwhile force the next parse.
+    public ParticipantTable loadParticipants(String csvPath, ExecutorService executor, int threads) throws Exception {
+        Path csv = Path.of(csvPath);
+        Path snapshot = Path.of(csvPath + SNAPSHOT_SUFFIX);
+        ParticipantSnapshot.Source source = ParticipantSnapshot.Source.of(csv);
+
+        if (Files.exists(snapshot) && source != ParticipantSnapshot.Source.NONE) {
+            try {
+                long start = System.currentTimeMillis();
+                ParticipantTable table = ParticipantSnapshot.readIfCurrent(snapshot, source);
+                if (table != null) {
+                    Logger.info("Loaded " + table.size() + " participants from snapshot " + snapshot.getFileName()
+                            + " in " + (System.currentTimeMillis() - start) + "ms");
+                    lastImportReport = snapshotReport(csvPath, table.size());
+                    return table;
+                }
+                Logger.info("Snapshot " + snapshot.getFileName() + " is stale; parsing " + csv.getFileName());
+            } catch (IOException e) {
+                Logger.warning("Ignoring unreadable snapshot " + snapshot.getFileName() + ": " + e.getMessage());
             }
         }
-        return list;
+
+        ParallelFileReadCallable importer = new ParallelFileReadCallable(csvPath, executor, threads);
+        ParticipantTable table = importer.call();
+        lastImportReport = importer.getReport();
+        try {
+            ParticipantSnapshot.write(table, snapshot, source);
+        } catch (IOException e) {
+            Logger.warning("Could not write snapshot " + snapshot.getFileName() + ": " + e.getMessage());
+        }
+        return table;
+    }
+
+    // The snapshot only holds accepted rows; the rejects of the parse it was written after are still in
+    // that parse's quarantine file, if there were any
+    private static ImportReport snapshotReport(String csvPath, long accepted) throws IOException {
+        Path quarantine = ParallelFileReadCallable.quarantinePath(csvPath);
+        if (!Files.exists(quarantine)) return new ImportReport(csvPath, accepted, 0, null);
+        try (var lines = Files.lines(quarantine, StandardCharsets.UTF_8)) {
+            return new ImportReport(csvPath, accepted, Math.max(0, lines.count() - 1), quarantine); // minus header
+        }
+    }
+
+    // Plain or gzip-compressed CSV
+    public static boolean isCSVPath(String path) {
+        return path.endsWith(".csv") || path.endsWith(".csv" + GzipFiles.SUFFIX);
+    }
+
+    // Lines of a CSV file, inflated first when it is gzip
+    private static BufferedReader openReader(String path) throws IOException {
+        return new BufferedReader(new InputStreamReader(GzipFiles.openInput(Path.of(path)), StandardCharsets.UTF_8));
     }
 
     @Override
     public void toCSV(String path, List<Team> teams) throws IOException, InvalidCSVFilePathException {
+        toCSV(path, teams, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public void toCSV(String path, List<Team> teams, ExecutorService executor, int threads)
+            throws IOException, InvalidCSVFilePathException {
         if (teams == null || teams.isEmpty()) {
             throw new IllegalArgumentException("No teams to export.");
         }
 
-        if (!path.endsWith(".csv")) {
-            throw new InvalidCSVFilePathException("CSV files must end with '.csv'."); // avoids accidental mis-naming
+        if (!isCSVPath(path)) {
+            throw new InvalidCSVFilePathException("CSV files must end with '.csv' or '.csv.gz'."); // avoids accidental mis-naming
         }
 
         File file = new File(path);
@@ -52,107 +150,160 @@ public class CSVHandler implements CSVService {
             throw new IOException("Failed to create file: " + file.getAbsolutePath()); // safety net for write failures
         }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.newLine(); // spacing before first team block
-
-            for (int i = 0; i < teams.size(); i++) {
-                Team team = teams.get(i);
-
-                // team block header — improves readability when opened manually
-                writer.write("# ==============================\n");
-                writer.write("# TEAM " + team.getTeam_id() +
-                        " (Size: " + team.getParticipantList().size() +
-                        ", Avg Skill: " + String.format("%.2f", team.CalculateAvgSkill()) + ")\n");
-                writer.write("# ==============================\n");
-
-                writer.write("TeamID,ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType\n");
-
-                for (Participant p : team.getParticipantList()) {
-                    writeParticipantWithTeam(writer, team.getTeam_id(), p); // shared formatting logic
-                }
+        // Sections are rendered (and for .gz compressed) in parallel and written in team order (see TeamExporter)
+        new TeamExporter(executor, threads).export(file.toPath(), teams);
+        System.out.println("Exported successfully to: " + file.getAbsolutePath());
+    }
 
-                if (i < teams.size() - 1) {
-                    writer.newLine(); // spacing between team sections
-                }
+    @Override
+    public void exportUnassignedUser(String path, List<Participant> participants) throws IOException {
+        if (isParticipantsFile(path)) {
+            synchronized (CSVHandler.class) { // no appends or compaction swap while the master file is rewritten
+                flushJournal(); // queued registrations land before the rewrite
+                writeUnassigned(path, participants);
+                compactor().fileRewritten();
             }
-            System.out.println("Exported successfully to: " + file.getAbsolutePath());
+        } else {
+            writeUnassigned(path, participants);
         }
     }
 
-    @Override
-    public void exportUnassignedUser(String path, List<Participant> participants) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path))) {
+    private void writeUnassigned(String path, List<Participant> participants) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(GzipFiles.openOutput(Path.of(path)), StandardCharsets.UTF_8))) { // .gz: compressed
             writer.write("ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType\n");
             for (Participant p : participants) {
                 writeParticipantNoTeam(writer, p); // separate format for "unassigned" output
             }
         }
+
+        // Rewriting the master file replaces its ID set
+        if (isParticipantsFile(path)) {
+            List<String> ids = new ArrayList<>(participants.size());
+            for (Participant p : participants) ids.add(p.getId());
+            ParticipantIdIndex.forFile(PARTICIPANTS_FILE).reset(ids);
+        }
     }
 
     @Override
     public void addToCSV(Participant p) throws IOException {
-        // append-only write — assuming participants_sample.csv is the master dataset
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PARTICIPANTS_FILE, true))) {
-            writer.write(String.join(",",
-                    escapeCSV(p.getId()),
-                    escapeCSV(p.getName()),
-                    escapeCSV(p.getEmail()),
-                    escapeCSV(p.getPreferredGame()),
-                    String.valueOf(p.getSkillLevel()),
-                    escapeCSV(p.getPreferredRole().name()),
-                    String.valueOf(p.getPersonalityScore()),
-                    escapeCSV(p.getPersonalityType().name())
-            ));
-            writer.newLine();
+        await(addToCSVAsync(p)); // returns once the row's batch is on disk
+    }
+
+    // Deletes a participant from the master file by appending a tombstone row (see ParticipantLog) instead
+    // of rewriting it. The tombstone goes through the registration journal, so it stays in order with sign-ups.
+    public void removeFromCSV(String id) throws IOException {
+        ParticipantIdIndex index = ParticipantIdIndex.forFile(PARTICIPANTS_FILE);
+        await(append(null, ParticipantLog.tombstoneRow(id)));
+        index.remove(id); // the ID can be registered again
+        compactor().recordAppend(1, 2); // the tombstone and the row it deletes
+    }
+
+    // Replaces a participant's row (matched by ID) by appending a tombstone for the old row and the new
+    // row, in one journal entry so both land in the same write
+    public void updateInCSV(Participant p) throws IOException {
+        ParticipantIdIndex.forFile(PARTICIPANTS_FILE);
+        await(append(p.getId(), ParticipantLog.tombstoneRow(p.getId()) + System.lineSeparator() + formatRow(p)));
+        compactor().recordAppend(2, 2); // the tombstone and the old row
+    }
+
+    // Rewrites the master file without dead rows now, instead of waiting for the background compaction
+    public void compactCSV() throws IOException {
+        compactor().compact();
+    }
+
+    private static void await(CompletableFuture<Void> write) throws IOException {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
         }
     }
 
+    // append-only write — assuming participants_sample.csv is the master dataset. The row goes through
+    // the registration journal, so concurrent sign-ups share one write and one fsync per batch.
+    public CompletableFuture<Void> addToCSVAsync(Participant p) throws IOException {
+        ParticipantIdIndex.forFile(PARTICIPANTS_FILE); // load the index before the row lands in the CSV
+        return append(p.getId(), formatRow(p));
+    }
+
+    // Batch size and linger time for registration group commit; applies to the next batch
+    public static synchronized void configureJournal(int maxBatchRows, long lingerMillis) {
+        if (maxBatchRows < 1 || lingerMillis < 0) {
+            throw new IllegalArgumentException("Batch size must be at least 1 and linger time not negative");
+        }
+        journalBatchRows = maxBatchRows;
+        journalLingerMillis = lingerMillis;
+        closeJournal(); // the next registration starts a journal with the new settings
+    }
+
+    // Writes out queued registrations; call before exit
+    public static synchronized void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    // Compaction of the master file. Writers are stopped by closing the journal (the next append opens it
+    // on the new file), and the ID index is restamped for the new file so it is not rebuilt.
+    private static synchronized LogCompactor compactor() {
+        if (compactor == null) {
+            compactor = new LogCompactor(Path.of(PARTICIPANTS_FILE), COMPACTION_DEAD_RATIO, COMPACTION_MIN_DEAD_LINES,
+                    CSVHandler.class, CSVHandler::closeJournal, () -> ParticipantIdIndex.fileReplaced(PARTICIPANTS_FILE));
+        }
+        return compactor;
+    }
+
+    // Queues a row on the current journal. Fetching the journal and queueing happen under the same lock
+    // that compaction closes it under, so a row can never land on a journal closed in between; append
+    // itself only enqueues, so the lock is held for moments.
+    private static synchronized CompletableFuture<Void> append(String key, String row) {
+        return journal().append(key, row);
+    }
+
+    private static synchronized RegistrationJournal journal() {
+        if (journal == null) {
+            journal = new RegistrationJournal(Path.of(PARTICIPANTS_FILE), journalBatchRows, journalLingerMillis,
+                    ids -> {
+                        try {
+                            ParticipantIdIndex.forFile(PARTICIPANTS_FILE).addAll(ids); // keep duplicate checks in step
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        return journal;
+    }
+
+    // Single-row form of the import parser, for callers that want an exception rather than a status
     @Override
     public Participant parseLineToParticipant(String line) throws InvalidSurveyDataException {
-        String[] values = line.split(",");
-
-        if (values.length < 8) {
-            // ensures bad rows fail fast instead of silently polluting the list
-            throw new InvalidSurveyDataException("Invalid CSV row (expected 8 columns): " + line);
+        ParticipantTable row = new ParticipantTable(1);
+        RowStatus status = parseLineIntoTable(line, row);
+        if (status != RowStatus.ACCEPTED) {
+            // blank lines and tombstones are no participant either, as before
+            String reason = status.isRejected() ? status.getReason() : RowStatus.WRONG_COLUMN_COUNT.getReason();
+            throw new InvalidSurveyDataException(reason + ": " + line);
         }
+        return row.participant(0);
+    }
 
-        try {
-            return new Participant(
-                    values[0].trim(),
-                    values[1].trim(),
-                    values[2].trim(),
-                    values[3].trim(),
-                    Integer.parseInt(values[4].trim()),
-                    RoleType.valueOf(values[5].trim().toUpperCase()), // using upper case to ensure simple case safety
-                    Integer.parseInt(values[6].trim()),
-                    PersonalityType.valueOf(values[7].trim().toUpperCase())
-            );
-        } catch (NumberFormatException e) {
-            throw new InvalidSurveyDataException("Invalid number format: " + line); // detects corrupted numeric fields
-        } catch (IllegalArgumentException e) {
-            throw new InvalidSurveyDataException("Invalid enum value: " + line); // catches bad role/personality strings
-        }
-    }
-
-    // CSV output helper when a team ID is required
-    private void writeParticipantWithTeam(BufferedWriter writer, int teamId, Participant p) throws IOException {
-        writer.write(String.join(",",
-                String.valueOf(teamId),
-                escapeCSV(p.getId()),
-                escapeCSV(p.getName()),
-                escapeCSV(p.getEmail()),
-                escapeCSV(p.getPreferredGame()),
-                String.valueOf(p.getSkillLevel()),
-                escapeCSV(p.getPreferredRole().name()),
-                String.valueOf(p.getPersonalityScore()),
-                escapeCSV(p.getPersonalityType().name())
-        ));
-        writer.newLine();
+    // Validates one row like the importers and appends it straight into the table's columns.
+    // Returns ACCEPTED, or BLANK / TOMBSTONE / the rejection reason without touching the table.
+    public RowStatus parseLineIntoTable(String line, ParticipantTable table) {
+        return ParallelFileReadCallable.parseLine(line, table);
     }
 
     // CSV output for unassigned users — intentionally omits team column
     private void writeParticipantNoTeam(BufferedWriter writer, Participant p) throws IOException {
-        writer.write(String.join(",",
+        writer.write(formatRow(p));
+        writer.newLine();
+    }
+
+    // One participant row in the master file format
+    private String formatRow(Participant p) {
+        return String.join(",",
                 escapeCSV(p.getId()),
                 escapeCSV(p.getName()),
                 escapeCSV(p.getEmail()),
@@ -161,12 +312,29 @@ public class CSVHandler implements CSVService {
                 escapeCSV(p.getPreferredRole().name()),
                 String.valueOf(p.getPersonalityScore()),
                 escapeCSV(p.getPersonalityType().name())
-        ));
-        writer.newLine();
+        );
+    }
+
+    private static void flushJournal() throws IOException {
+        CompletableFuture<Void> flushed;
+        synchronized (CSVHandler.class) { // same reason as append()
+            if (journal == null) return;
+            flushed = journal.flush();
+        }
+        try {
+            flushed.join();
+        } catch (CompletionException e) {
+            throw new IOException("Pending registrations could not be written", e.getCause());
+        }
+    }
+
+    private boolean isParticipantsFile(String path) {
+        return new File(path).getAbsoluteFile().toPath().normalize()
+                .equals(new File(PARTICIPANTS_FILE).getAbsoluteFile().toPath().normalize());
     }
 
     // protects CSV fields from breaking structure if they contain commas/quotes/newlines
-    private String escapeCSV(String value) {
+    static String escapeCSV(String value) {
         if (value == null) return "";
         if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
             return "\"" + value.replace("\"", "\"\"") + "\""; // minimal RFC-compliant escaping
@@ -0,0 +1,213 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+// Pool of unassigned table rows bucketed by (personality, role, skill level, game) so team formation can
+// drop picked players in O(1) and only look at buckets a team can still accept.
+// Each bucket is a doubly linked list threaded through plain int arrays over "slots" (positions in the
+// rows array the index was built from), so the index allocates nothing per participant.
+public final class CandidateIndex {
+
+    public static final int NONE = -1;
+
+    private static final int SKILL_LEVELS = 10; // skill is 1–10; anything outside is clamped into the edge bucket
+    private static final int PERSONALITIES = PersonalityType.values().length;
+    private static final int ROLES = RoleType.values().length;
+    private static final int CELLS = PERSONALITIES * ROLES * SKILL_LEVELS;
+
+    private final ParticipantTable table;
+    private final int games;
+
+    // Per slot
+    private final int[] rows;
+    private final int[] bucketOfSlot;
+    private final int[] nextSlot;
+    private final int[] prevSlot;
+    private final boolean[] present;
+
+    // Per bucket (cell * games + game): its slot list, and its neighbours among the cell's non-empty buckets
+    private final int[] firstSlot;
+    private final int[] lastSlot;
+    private final int[] nextBucket;
+    private final int[] prevBucket;
+
+    // Per cell (personality, role, skill): first and last non-empty game bucket
+    private final int[] firstBucket = new int[CELLS];
+    private final int[] lastBucket = new int[CELLS];
+
+    private final int[] personalityCounts = new int[PERSONALITIES];
+    private int size;
+    private long scored; // candidates findBest has scored, for the formation metrics
+
+    public CandidateIndex(ParticipantTable table, int[] rows) {
+        this.table = table;
+        this.games = Math.max(1, table.gameCount());
+        this.rows = rows;
+
+        int slots = rows.length;
+        bucketOfSlot = new int[slots];
+        nextSlot = new int[slots];
+        prevSlot = new int[slots];
+        present = new boolean[slots];
+
+        int buckets = CELLS * games;
+        firstSlot = new int[buckets];
+        lastSlot = new int[buckets];
+        nextBucket = new int[buckets];
+        prevBucket = new int[buckets];
+        Arrays.fill(firstSlot, NONE);
+        Arrays.fill(lastSlot, NONE);
+        Arrays.fill(firstBucket, NONE);
+        Arrays.fill(lastBucket, NONE);
+
+        for (int slot = 0; slot < slots; slot++) {
+            bucketOfSlot[slot] = bucketOf(rows[slot]);
+            add(slot);
+        }
+    }
+
+    // Table row held in a slot
+    public int row(int slot) {
+        return rows[slot];
+    }
+
+    // Puts a slot (back) at the end of its bucket
+    public void add(int slot) {
+        if (present[slot]) return;
+        int bucket = bucketOfSlot[slot];
+
+        if (firstSlot[bucket] == NONE) {
+            firstSlot[bucket] = slot;
+            linkBucket(bucket);
+        } else {
+            nextSlot[lastSlot[bucket]] = slot;
+        }
+        prevSlot[slot] = lastSlot[bucket];
+        nextSlot[slot] = NONE;
+        lastSlot[bucket] = slot;
+
+        present[slot] = true;
+        personalityCounts[table.personalityOrdinal(rows[slot])]++;
+        size++;
+    }
+
+    public boolean remove(int slot) {
+        if (!present[slot]) return false;
+        int bucket = bucketOfSlot[slot];
+
+        if (prevSlot[slot] == NONE) firstSlot[bucket] = nextSlot[slot];
+        else nextSlot[prevSlot[slot]] = nextSlot[slot];
+        if (nextSlot[slot] == NONE) lastSlot[bucket] = prevSlot[slot];
+        else prevSlot[nextSlot[slot]] = prevSlot[slot];
+
+        if (firstSlot[bucket] == NONE) unlinkBucket(bucket); // keeps game iteration short
+
+        present[slot] = false;
+        personalityCounts[table.personalityOrdinal(rows[slot])]--;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int count(PersonalityType type) {
+        return personalityCounts[type.ordinal()];
+    }
+
+    // Earliest-inserted slot of the given personality, or NONE if none are left
+    public int first(PersonalityType type) {
+        if (personalityCounts[type.ordinal()] == 0) return NONE;
+        int firstCell = type.ordinal() * ROLES * SKILL_LEVELS;
+        for (int cell = firstCell; cell < firstCell + ROLES * SKILL_LEVELS; cell++) {
+            if (firstBucket[cell] != NONE) return firstSlot[firstBucket[cell]];
+        }
+        return NONE;
+    }
+
+    // Highest scoring slot whose personality and game are still open for the team (NONE if there is none).
+    // Every player in a (personality, role, skill) cell scores the same, so only the first player of
+    // the first open game is scored per cell; at most a handful of games can be full in one team.
+    public int findBest(IntPredicate personalityOpen, IntPredicate gameOpen, IntToDoubleFunction scoreOfRow) {
+        int best = NONE;
+        double bestScore = -1;
+
+        for (int personality = 0; personality < PERSONALITIES; personality++) {
+            if (personalityCounts[personality] == 0 || !personalityOpen.test(personality)) continue;
+
+            int firstCell = personality * ROLES * SKILL_LEVELS;
+            for (int cell = firstCell; cell < firstCell + ROLES * SKILL_LEVELS; cell++) {
+                for (int bucket = firstBucket[cell]; bucket != NONE; bucket = nextBucket[bucket]) {
+                    if (!gameOpen.test(bucket % games)) continue;
+
+                    int slot = firstSlot[bucket];
+                    double score = scoreOfRow.applyAsDouble(rows[slot]);
+                    scored++;
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = slot;
+                    }
+                    break; // rest of the cell scores the same
+                }
+            }
+        }
+        return best;
+    }
+
+    public long scoredCount() {
+        return scored;
+    }
+
+    // Empties the index, returning the rows that were left in slot order
+    public int[] drain() {
+        int[] leftover = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < rows.length; slot++) {
+            if (present[slot]) {
+                leftover[count++] = rows[slot];
+                present[slot] = false;
+            }
+        }
+        Arrays.fill(firstSlot, NONE);
+        Arrays.fill(lastSlot, NONE);
+        Arrays.fill(firstBucket, NONE);
+        Arrays.fill(lastBucket, NONE);
+        Arrays.fill(personalityCounts, 0);
+        size = 0;
+        return leftover;
+    }
+
+    private int bucketOf(int row) {
+        int skill = Math.max(1, Math.min(SKILL_LEVELS, table.skill(row))) - 1;
+        int cell = (table.personalityOrdinal(row) * ROLES + table.roleOrdinal(row)) * SKILL_LEVELS + skill;
+        return cell * games + table.game(row);
+    }
+
+    private void linkBucket(int bucket) {
+        int cell = bucket / games;
+        prevBucket[bucket] = lastBucket[cell];
+        nextBucket[bucket] = NONE;
+        if (lastBucket[cell] == NONE) firstBucket[cell] = bucket;
+        else nextBucket[lastBucket[cell]] = bucket;
+        lastBucket[cell] = bucket;
+    }
+
+    private void unlinkBucket(int bucket) {
+        int cell = bucket / games;
+        if (prevBucket[bucket] == NONE) firstBucket[cell] = nextBucket[bucket];
+        else nextBucket[prevBucket[bucket]] = nextBucket[bucket];
+        if (nextBucket[bucket] == NONE) lastBucket[cell] = prevBucket[bucket];
+        else prevBucket[nextBucket[bucket]] = prevBucket[bucket];
+    }
+}
@@ -0,0 +1,489 @@
+package Service;
+
+import Model.PersonalityType;
+import Model.RoleType;
+import Utility.GzipFiles;
+import Utility.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+// Writes synthetic participants files of any size for load and scaling tests, in every format the readers
+// take: plain CSV, block gzip (what the app writes itself, inflated in parallel on import) or one plain
+// gzip stream like the gzip tool makes. Rows are rendered in chunks on worker threads and written in
+// order with only a window of chunks in memory, so tens of millions of rows stream straight to disk.
+// Every chunk draws from its own generator seeded by (seed, chunk number): a seed always gives the same
+// file, whatever the thread count.
+//
+// Personality, role, skill and game follow weighted distributions that a Scenario presets and the setters
+// override. A share of the rows can be malformed on purpose (wrong column count, bad number or unknown
+// enum, in equal parts), and a share can be followed by a tombstone deleting an earlier row of its chunk.
+//
+//   java -cp team-builder.jar Service.DatasetGenerator big.csv.gz 10000000 --scenario leader-scarcity
+public final class DatasetGenerator {
+
+    public static final String HEADER = "ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType";
+
+    private static final int ROWS_PER_CHUNK = 1 << 16;
+    private static final long DEFAULT_SEED = 42;
+    private static final String[] SAMPLE_GAMES = {"Valorant", "FIFA", "Chess", "DOTA 2", "CS:GO", "Basketball"};
+
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final int SKILL_LEVELS = 10;
+
+    private static final byte[] ID_PREFIX = ascii("P");
+    private static final byte[] NAME_PREFIX = ascii(",Participant_");
+    private static final byte[] EMAIL_PREFIX = ascii(",user");
+    private static final byte[] EMAIL_SUFFIX = ascii("@university.edu,");
+    private static final byte[] BAD_NUMBER = ascii("high");
+    private static final byte[] BAD_ROLE = ascii("GOALKEEPER");
+    private static final byte[][] ROLE_NAMES = names(ROLES);
+    private static final byte[][] PERSONALITY_NAMES = names(PERSONALITIES);
+
+    public enum Scenario {
+        SAMPLE,          // like partcipant_200_.csv: leaders, balanced players and thinkers in thirds, six games
+        UNIFORM,         // every personality, role, skill and game equally likely
+        LEADER_SCARCITY, // 2% leaders, so most of the pool cannot get into a compliant team
+        DOMINANT_GAME    // 70% of the players prefer one game, which strains the same-game limit
+    }
+
+    public enum Compression {
+        NONE,   // plain CSV
+        BLOCKS, // block gzip, compressed on the workers
+        STREAM  // one gzip stream, compressed on the writing thread
+    }
+
+    // What generate() wrote; rows counts every data line except tombstones, malformed ones included
+    public record Report(long rows, long malformed, long tombstones, long bytes, long millis) {
+    }
+
+    private final long seed;
+    private double[] personalityWeights; // cumulative, by ordinal
+    private double[] roleWeights;        // cumulative, by ordinal
+    private double[] skillWeights;       // cumulative, index 0 is skill 1
+    private double[] gameWeights;        // cumulative, same order as gameNames
+    private byte[][] gameNames;
+    private double malformedRate;
+    private double deleteRate;
+
+    public DatasetGenerator(long seed, Scenario scenario) {
+        this.seed = seed;
+        setRoleWeights(uniform(ROLES));
+        setSkillWeights(uniform(skills()));
+
+        Map<PersonalityType, Double> personalities = uniform(PERSONALITIES);
+        Map<String, Double> games = uniform(SAMPLE_GAMES);
+        switch (scenario) {
+            case SAMPLE -> personalities.put(PersonalityType.SOCIALIZER, 0.0);
+            case UNIFORM -> { }
+            case LEADER_SCARCITY -> {
+                personalities.replaceAll((type, weight) -> 98.0 / 3);
+                personalities.put(PersonalityType.LEADER, 2.0);
+            }
+            case DOMINANT_GAME -> {
+                games.replaceAll((game, weight) -> 30.0 / (SAMPLE_GAMES.length - 1));
+                games.put(SAMPLE_GAMES[0], 70.0);
+            }
+        }
+        setPersonalityWeights(personalities);
+        setGameWeights(games);
+    }
+
+    // Relative weights; a missing personality never occurs
+    public void setPersonalityWeights(Map<PersonalityType, Double> weights) {
+        personalityWeights = cumulative(PERSONALITIES, weights, "personality");
+    }
+
+    public void setRoleWeights(Map<RoleType, Double> weights) {
+        roleWeights = cumulative(ROLES, weights, "role");
+    }
+
+    // Keys are skill levels 1–10
+    public void setSkillWeights(Map<Integer, Double> weights) {
+        for (Integer skill : weights.keySet()) {
+            if (skill < 1 || skill > SKILL_LEVELS) {
+                throw new IllegalArgumentException("Skill levels are 1–" + SKILL_LEVELS + ", not " + skill);
+            }
+        }
+        skillWeights = cumulative(skills(), weights, "skill");
+    }
+
+    // Games in the order given, with their relative weights
+    public void setGameWeights(Map<String, Double> weights) {
+        String[] names = weights.keySet().toArray(new String[0]);
+        for (String name : names) {
+            if (name.isBlank()) throw new IllegalArgumentException("Game names cannot be blank");
+            if (name.matches(".*[,\"\r\n].*")) { // the readers split rows on every comma
+                throw new IllegalArgumentException("Game names cannot contain commas, quotes or line breaks: " + name);
+            }
+        }
+        gameWeights = cumulative(names, weights, "game");
+        gameNames = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) gameNames[i] = names[i].trim().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Share of rows (0–1) written malformed on purpose
+    public void setMalformedRate(double malformedRate) {
+        this.malformedRate = rate(malformedRate, "Malformed");
+    }
+
+    // Share of rows (0–1) followed by a tombstone for an earlier row
+    public void setDeleteRate(double deleteRate) {
+        this.deleteRate = rate(deleteRate, "Delete");
+    }
+
+    // Replaces the file with a header and `rows` rows. Compression must match the name: ".gz" or not.
+    public Report generate(Path path, long rows, Compression compression, ExecutorService executor, int threads)
+            throws IOException {
+        if (rows < 0) throw new IllegalArgumentException("Row count cannot be negative");
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be at least 1");
+        if ((compression != Compression.NONE) != GzipFiles.isCompressedName(path.toString())) {
+            throw new IllegalArgumentException("Only \"" + GzipFiles.SUFFIX + "\" files are compressed: " + path);
+        }
+
+        long start = System.currentTimeMillis();
+        boolean compress = compression == Compression.BLOCKS;
+        long chunks = Math.max(1, (rows + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK);
+        int window = threads * 2;
+        Deque<Chunk> free = new ArrayDeque<>();
+        Deque<Future<Chunk>> rendering = new ArrayDeque<>();
+        long malformed = 0;
+        long tombstones = 0;
+
+        try (OutputStream out = open(path, compression)) {
+            for (long index = 0; index < chunks; index++) {
+                if (rendering.size() == window) {
+                    Chunk done = await(rendering.poll());
+                    done.writeTo(out);
+                    malformed += done.malformed;
+                    tombstones += done.tombstones;
+                    free.add(done);
+                }
+
+                Chunk chunk = free.isEmpty() ? new Chunk() : free.poll();
+                long chunkIndex = index;
+                long firstRow = index * ROWS_PER_CHUNK;
+                int count = (int) Math.min(ROWS_PER_CHUNK, rows - firstRow);
+                rendering.add(executor.submit(() -> chunk.render(chunkIndex, firstRow, count, compress)));
+            }
+
+            while (!rendering.isEmpty()) {
+                Chunk done = await(rendering.poll());
+                done.writeTo(out);
+                malformed += done.malformed;
+                tombstones += done.tombstones;
+            }
+            if (compress) out.write(GzipFiles.eofBlock());
+        } finally {
+            for (Future<Chunk> pending : rendering) pending.cancel(true); // only left over after a failure
+        }
+
+        Report report = new Report(rows, malformed, tombstones, Files.size(path), System.currentTimeMillis() - start);
+        Logger.info("Generated {}: {} rows ({} malformed, {} tombstones), {} bytes in {}ms", path, report.rows(),
+                report.malformed(), report.tombstones(), report.bytes(), report.millis());
+        return report;
+    }
+
+    // Command line: <output.csv | output.csv.gz> <rows> [options], see usage()
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = null;
+        try {
+            if (args.length < 2) throw new IllegalArgumentException("Output file and row count are required");
+            Path path = Path.of(args[0]);
+            long rows = Long.parseLong(args[1]);
+
+            Map<String, String> options = new LinkedHashMap<>();
+            for (int i = 2; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--gzip-stream")) {
+                    options.put(option, "");
+                } else if (option.startsWith("--") && i + 1 < args.length) {
+                    options.put(option, args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+
+            long seed = Long.parseLong(options.getOrDefault("--seed", String.valueOf(DEFAULT_SEED)));
+            Scenario scenario = Scenario.valueOf(options.getOrDefault("--scenario", "sample")
+                    .toUpperCase(Locale.ROOT).replace('-', '_'));
+            DatasetGenerator generator = new DatasetGenerator(seed, scenario);
+            for (Map.Entry<String, String> option : options.entrySet()) {
+                String value = option.getValue();
+                switch (option.getKey()) {
+                    case "--seed", "--scenario", "--gzip-stream" -> { }
+                    case "--personalities" -> generator.setPersonalityWeights(weights(value,
+                            name -> PersonalityType.valueOf(name.toUpperCase(Locale.ROOT))));
+                    case "--roles" -> generator.setRoleWeights(weights(value,
+                            name -> RoleType.valueOf(name.toUpperCase(Locale.ROOT))));
+                    case "--skills" -> generator.setSkillWeights(weights(value, Integer::valueOf));
+                    case "--games" -> generator.setGameWeights(weights(value, name -> name));
+                    case "--malformed" -> generator.setMalformedRate(Double.parseDouble(value));
+                    case "--deletes" -> generator.setDeleteRate(Double.parseDouble(value));
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option.getKey());
+                }
+            }
+
+            Compression compression = !GzipFiles.isCompressedName(path.toString()) ? Compression.NONE
+                    : options.containsKey("--gzip-stream") ? Compression.STREAM : Compression.BLOCKS;
+            executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+                Thread thread = new Thread(r, "dataset-generator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Report report = generator.generate(path, rows, compression, executor, Math.max(1, threads));
+            System.out.println("Wrote " + report.rows() + " rows (" + report.malformed() + " malformed, "
+                    + report.tombstones() + " tombstones) to " + path + ": " + report.bytes() + " bytes in "
+                    + report.millis() + "ms");
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(usage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            if (executor != null) executor.shutdown();
+        }
+    }
+
+    private static String usage() {
+        return String.join(System.lineSeparator(),
+                "Usage: DatasetGenerator <output.csv | output.csv.gz> <rows> [options]",
+                "  --seed <n>                  same seed, same file (default " + DEFAULT_SEED + ")",
+                "  --scenario <name>           sample, uniform, leader-scarcity or dominant-game (default sample)",
+                "  --personalities <weights>   e.g. LEADER=1,BALANCED=3,THINKER=3,SOCIALIZER=1",
+                "  --roles <weights>           e.g. STRATEGIST=2,ATTACKER=1,DEFENDER=1,SUPPORTER=1,COORDINATOR=1",
+                "  --skills <weights>          e.g. 1=1,5=4,10=1 (levels left out never occur)",
+                "  --games <weights>           e.g. Valorant=7,FIFA=1,Chess=1",
+                "  --malformed <share>         share of rows (0-1) written malformed on purpose",
+                "  --deletes <share>           share of rows (0-1) followed by a tombstone",
+                "  --gzip-stream               write .gz as one gzip stream instead of parallel blocks",
+                "  --threads <n>               rendering threads (default: one per core)");
+    }
+
+    // "NAME=weight,NAME=weight" in the order given
+    private static <K> Map<K, Double> weights(String text, Function<String, K> key) {
+        Map<K, Double> weights = new LinkedHashMap<>();
+        for (String entry : text.split(",")) {
+            int equals = entry.lastIndexOf('=');
+            if (equals <= 0) throw new IllegalArgumentException("Weights look like NAME=weight, not " + entry);
+            weights.put(key.apply(entry.substring(0, equals).trim()),
+                    Double.parseDouble(entry.substring(equals + 1).trim()));
+        }
+        return weights;
+    }
+
+    // Block gzip members are compressed by the workers, so the file itself takes them as they are
+    private static OutputStream open(Path path, Compression compression) throws IOException {
+        OutputStream file = Files.newOutputStream(path);
+        return compression == Compression.STREAM
+                ? new GZIPOutputStream(file, 1 << 16)
+                : new BufferedOutputStream(file, 1 << 16);
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Generating rows failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generation interrupted", e);
+        }
+    }
+
+    // One run of rows rendered into a reusable buffer (and compressed, for block gzip)
+    private final class Chunk {
+        private byte[] bytes = new byte[1 << 22];
+        private int length;
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        private boolean isCompressed;
+        private long malformed;
+        private long tombstones;
+
+        Chunk render(long index, long firstRow, int count, boolean compress) {
+            SplittableRandom random = new SplittableRandom(seed ^ (index + 1) * 0x9E3779B97F4A7C15L);
+            length = 0;
+            malformed = 0;
+            tombstones = 0;
+            if (index == 0) {
+                put(ascii(HEADER));
+                put('\n');
+            }
+
+            for (int i = 0; i < count; i++) {
+                long id = firstRow + i + 1;
+                int defect = -1;
+                if (malformedRate > 0 && random.nextDouble() < malformedRate) {
+                    defect = random.nextInt(3);
+                    malformed++;
+                }
+                row(id, random, defect);
+
+                if (deleteRate > 0 && random.nextDouble() < deleteRate) {
+                    put(ParticipantLog.TOMBSTONE_PREFIX);
+                    put(ID_PREFIX);
+                    number(firstRow + 1 + random.nextLong(i + 1)); // this row or an earlier one of the chunk
+                    put('\n');
+                    tombstones++;
+                }
+            }
+
+            isCompressed = compress;
+            if (compress) {
+                compressed.reset();
+                GzipFiles.compressBlocks(bytes, 0, length, compressed);
+            }
+            return this;
+        }
+
+        // defect: -1 for a valid row, 0 drops the last column, 1 spoils the skill, 2 the role
+        private void row(long id, SplittableRandom random, int defect) {
+            PersonalityType type = PERSONALITIES[pick(personalityWeights, random)];
+            int skill = 1 + pick(skillWeights, random);
+            int role = pick(roleWeights, random);
+            int game = pick(gameWeights, random);
+            int score = score(type, random);
+
+            put(ID_PREFIX);
+            number(id);
+            put(NAME_PREFIX);
+            number(id);
+            put(EMAIL_PREFIX);
+            number(id);
+            put(EMAIL_SUFFIX);
+            put(gameNames[game]);
+            put(',');
+            if (defect == 1) put(BAD_NUMBER);
+            else number(skill);
+            put(',');
+            put(defect == 2 ? BAD_ROLE : ROLE_NAMES[role]);
+            put(',');
+            number(score);
+            if (defect != 0) {
+                put(',');
+                put(PERSONALITY_NAMES[type.ordinal()]);
+            }
+            put('\n');
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            if (isCompressed) compressed.writeTo(out);
+            else out.write(bytes, 0, length);
+        }
+
+        private void put(byte[] source) {
+            ensure(source.length);
+            System.arraycopy(source, 0, bytes, length, source.length);
+            length += source.length;
+        }
+
+        private void put(char c) {
+            ensure(1);
+            bytes[length++] = (byte) c;
+        }
+
+        private void number(long value) {
+            ensure(20);
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) digits++;
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    // A score the survey could give this type (see PersonalityClassifier)
+    private static int score(PersonalityType type, SplittableRandom random) {
+        return switch (type) {
+            case LEADER -> 90 + random.nextInt(11);
+            case BALANCED -> 70 + random.nextInt(20);
+            case THINKER -> 50 + random.nextInt(20);
+            case SOCIALIZER -> 20 + random.nextInt(30);
+        };
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (target < cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+
+    private static <K> double[] cumulative(K[] keys, Map<K, Double> weights, String what) {
+        double[] cumulative = new double[keys.length];
+        double total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            double weight = weights.getOrDefault(keys[i], 0.0);
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid " + what + " weight for " + keys[i] + ": " + weight);
+            }
+            total += weight;
+            cumulative[i] = total;
+        }
+        if (total <= 0) throw new IllegalArgumentException("At least one " + what + " weight must be positive");
+
+        // pick() falls back to the last key, so trailing keys that never occur are cut off
+        int last = keys.length - 1;
+        while (last > 0 && cumulative[last] == cumulative[last - 1]) last--;
+        return Arrays.copyOf(cumulative, last + 1);
+    }
+
+    private static double rate(double rate, String what) {
+        if (!(rate >= 0 && rate <= 1)) throw new IllegalArgumentException(what + " rate must be between 0 and 1");
+        return rate;
+    }
+
+    private static <K> Map<K, Double> uniform(K[] keys) {
+        Map<K, Double> weights = new LinkedHashMap<>();
+        for (K key : keys) weights.put(key, 1.0);
+        return weights;
+    }
+
+    private static Integer[] skills() {
+        Integer[] skills = new Integer[SKILL_LEVELS];
+        for (int i = 0; i < SKILL_LEVELS; i++) skills[i] = i + 1;
+        return skills;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) names[value.ordinal()] = ascii(value.name());
+        return names;
+    }
+}
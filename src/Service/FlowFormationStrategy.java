@@ -0,0 +1,214 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import Utility.IntList;
+import Utility.Logger;
+import Utility.MinCostFlow;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Slot-allocation engine. It first works out how many compliant teams the pool can support at most,
+// reserves one leader per team, and groups those teams by their leader's role. A min-cost flow per
+// personality layer (socializers, then thinkers, then balanced) routes non-leaders into the groups
+// under the per-team personality, game and size caps, steering members away from their leader's role.
+// The greedy picker then assembles concrete teams inside each group, and a final greedy pass
+// reconciles whatever is left.
+public class FlowFormationStrategy implements TeamFormationStrategy {
+
+    private static final long UNLIMITED = Long.MAX_VALUE / 4;
+    private static final long ROLE_CLASH_COST = 1; // routing a member into a group that shares their role
+
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    private final GreedyFormationStrategy assembler = new GreedyFormationStrategy();
+    private final ForkJoinPool formationPool; // null assembles the groups on the calling thread
+
+    public FlowFormationStrategy() {
+        this(null);
+    }
+
+    public FlowFormationStrategy(ForkJoinPool formationPool) {
+        this.formationPool = formationPool;
+    }
+
+    @Override
+    public String name() {
+        return "Min-cost flow";
+    }
+
+    @Override
+    public String key() {
+        return "flow";
+    }
+
+    @Override
+    public FormationResult formTeams(ParticipantTable table, int[] rows, int teamSize) {
+        IntList[] byType = new IntList[PERSONALITIES.length];
+        for (int p = 0; p < PERSONALITIES.length; p++) byType[p] = new IntList();
+        for (int row : rows) byType[table.personalityOrdinal(row)].add(row);
+
+        IntList leaders = byType[PersonalityType.LEADER.ordinal()];
+        int teams = maxTeamCount(byType, rows.length, teamSize);
+        LOG.info("Flow engine: at most {} compliant teams from {} leaders", teams, leaders.size());
+        if (teams == 0) {
+            return new FormationResult(new ArrayList<>(), rows.clone());
+        }
+
+        // One reserved leader per team; teams are grouped by the leader's role
+        IntList unplaced = new IntList();
+        for (int i = teams; i < leaders.size(); i++) unplaced.add(leaders.get(i));
+        IntList[] groups = new IntList[ROLES.length];
+        for (int r = 0; r < ROLES.length; r++) groups[r] = new IntList();
+        int[] groupTeams = new int[ROLES.length];
+
+        // Remaining room per group: players of each game, and non-leader slots overall
+        int games = table.gameCount();
+        long[][] gameRoom = new long[ROLES.length][games];
+        long[] slotRoom = new long[ROLES.length];
+
+        for (int i = 0; i < teams; i++) {
+            int leader = leaders.get(i);
+            int group = table.roleOrdinal(leader);
+            groups[group].add(leader);
+            groupTeams[group]++;
+            gameRoom[group][table.game(leader)]--;
+        }
+        for (int r = 0; r < ROLES.length; r++) {
+            for (int g = 0; g < games; g++) gameRoom[r][g] += (long) TeamRules.MAX_SAME_GAME * groupTeams[r];
+            slotRoom[r] = (long) groupTeams[r] * (teamSize - 1);
+        }
+
+        // Scarcest personalities first, so their tighter caps are not crowded out by balanced players
+        allocateLayer(table, byType[PersonalityType.SOCIALIZER.ordinal()], TeamRules.MAX_SOCIALIZERS,
+                groupTeams, gameRoom, slotRoom, groups, unplaced);
+        allocateLayer(table, byType[PersonalityType.THINKER.ordinal()], TeamRules.MAX_THINKERS,
+                groupTeams, gameRoom, slotRoom, groups, unplaced);
+        allocateLayer(table, byType[PersonalityType.BALANCED.ordinal()], teamSize - 1,
+                groupTeams, gameRoom, slotRoom, groups, unplaced);
+
+        // Assemble concrete teams inside each group
+        List<int[]> formed = new ArrayList<>();
+        for (FormationResult result : assembleGroups(table, groups, teamSize)) {
+            formed.addAll(result.teams());
+            unplaced.addAll(result.leftover());
+        }
+
+        LOG.info("Flow engine: groups formed {} teams; reconciling {} leftovers", formed.size(), unplaced.size());
+        FormationResult reconciled = assembler.formShard(table, unplaced.toArray(), teamSize);
+        formed.addAll(reconciled.teams());
+        return new FormationResult(formed, reconciled.leftover());
+    }
+
+    // Largest team count k with enough leaders, enough people, and enough non-leaders
+    // once thinkers (2 per team) and socializers (1 per team) are capped
+    private int maxTeamCount(IntList[] byType, int total, int teamSize) {
+        int socializers = byType[PersonalityType.SOCIALIZER.ordinal()].size();
+        int thinkers = byType[PersonalityType.THINKER.ordinal()].size();
+        int balanced = byType[PersonalityType.BALANCED.ordinal()].size();
+
+        for (int k = Math.min(byType[PersonalityType.LEADER.ordinal()].size(), total / teamSize); k > 0; k--) {
+            long fillable = Math.min(socializers, (long) k * TeamRules.MAX_SOCIALIZERS)
+                    + Math.min(thinkers, (long) k * TeamRules.MAX_THINKERS)
+                    + balanced;
+            if (fillable >= (long) k * (teamSize - 1)) return k;
+        }
+        return 0;
+    }
+
+    // Routes one personality layer into the groups with a min-cost flow:
+    // source -> (role, game) class -> (group, game) -> group -> sink.
+    // (group, game) edges carry the remaining same-game room, group edges the layer cap and free slots.
+    private void allocateLayer(ParticipantTable table, IntList members, int perTeamCap,
+                               int[] groupTeams, long[][] gameRoom, long[] slotRoom,
+                               IntList[] groups, IntList unplaced) {
+        if (members.isEmpty()) return;
+        int games = table.gameCount();
+
+        Map<Integer, IntList> classes = new LinkedHashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            int row = members.get(i);
+            int key = table.roleOrdinal(row) * games + table.game(row);
+            classes.computeIfAbsent(key, k -> new IntList()).add(row);
+        }
+
+        // Node layout: 0 source, 1 sink, then classes, then groups, then (group, game) nodes
+        int source = 0, sink = 1;
+        int firstClass = 2;
+        int firstGroup = firstClass + classes.size();
+        int firstGroupGame = firstGroup + ROLES.length;
+        MinCostFlow flow = new MinCostFlow(firstGroupGame + ROLES.length * games);
+
+        for (int group = 0; group < ROLES.length; group++) {
+            long layerRoom = Math.min((long) perTeamCap * groupTeams[group], slotRoom[group]);
+            if (layerRoom > 0) flow.addEdge(firstGroup + group, sink, layerRoom, 0);
+        }
+
+        boolean[] groupGameLinked = new boolean[ROLES.length * games];
+        List<int[]> routes = new ArrayList<>(); // {class key, group, edge id}
+        int classNode = firstClass;
+        for (Map.Entry<Integer, IntList> entry : classes.entrySet()) {
+            int role = entry.getKey() / games;
+            int game = entry.getKey() % games;
+            flow.addEdge(source, classNode, entry.getValue().size(), 0);
+
+            for (int group = 0; group < ROLES.length; group++) {
+                if (groupTeams[group] == 0 || gameRoom[group][game] <= 0) continue;
+
+                int groupGame = group * games + game;
+                if (!groupGameLinked[groupGame]) {
+                    flow.addEdge(firstGroupGame + groupGame, firstGroup + group, gameRoom[group][game], 0);
+                    groupGameLinked[groupGame] = true;
+                }
+                long cost = role == group ? ROLE_CLASH_COST : 0;
+                int edge = flow.addEdge(classNode, firstGroupGame + groupGame, UNLIMITED, cost);
+                routes.add(new int[]{entry.getKey(), group, edge});
+            }
+            classNode++;
+        }
+
+        flow.solve(source, sink);
+
+        // Hand out class members in pool order according to the flow on each route
+        Map<Integer, Integer> taken = new HashMap<>();
+        for (int[] route : routes) {
+            int routed = (int) flow.flowOn(route[2]);
+            if (routed == 0) continue;
+
+            IntList pool = classes.get(route[0]);
+            int from = taken.getOrDefault(route[0], 0);
+            for (int i = from; i < from + routed; i++) groups[route[1]].add(pool.get(i));
+            taken.put(route[0], from + routed);
+
+            gameRoom[route[1]][route[0] % games] -= routed;
+            slotRoom[route[1]] -= routed;
+        }
+        for (Map.Entry<Integer, IntList> entry : classes.entrySet()) {
+            IntList pool = entry.getValue();
+            for (int i = taken.getOrDefault(entry.getKey(), 0); i < pool.size(); i++) unplaced.add(pool.get(i));
+        }
+    }
+
+    // Runs the greedy picker inside every group, in parallel when a pool is available
+    private List<FormationResult> assembleGroups(ParticipantTable table, IntList[] groups, int teamSize) {
+        List<FormationResult> results = new ArrayList<>();
+        if (formationPool == null) {
+            for (IntList group : groups) results.add(assembler.formShard(table, group.toArray(), teamSize));
+            return results;
+        }
+
+        List<ForkJoinTask<FormationResult>> tasks = new ArrayList<>();
+        for (IntList group : groups) {
+            int[] rows = group.toArray();
+            tasks.add(formationPool.submit(() -> assembler.formShard(table, rows, teamSize)));
+        }
+        for (ForkJoinTask<FormationResult> task : tasks) results.add(task.join());
+        return results;
+    }
+}
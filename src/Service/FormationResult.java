@@ -0,0 +1,7 @@
+package Service;
+
+import java.util.List;
+
+// Compliant teams (as table row numbers) plus the rows a formation engine could not place
+public record FormationResult(List<int[]> teams, int[] leftover) {
+}
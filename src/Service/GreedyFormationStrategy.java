@@ -0,0 +1,196 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.TeamComposition;
+import Utility.Histogram;
+import Utility.IntList;
+import Utility.Logger;
+import Utility.MetricsRegistry;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Leader-first greedy engine: each team starts from a leader and takes the best-scoring legal candidate
+// until full. With a fork-join pool, large pools are split into stratified shards formed in parallel.
+public class GreedyFormationStrategy implements TeamFormationStrategy {
+
+    // Settings for sharded (parallel) formation
+    private static final int MIN_SHARD_SIZE = 5000; // smaller shards lose more to leftovers than they gain
+    private final ForkJoinPool formationPool;       // null keeps formation on the calling thread
+
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+    private static final int ROLE_COUNT = RoleType.values().length;
+
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    private static final MetricsRegistry.Counter CANDIDATES_SCORED = MetricsRegistry.counter("formation.candidatesScored");
+    private static final MetricsRegistry.Counter SEQUENTIAL_FALLBACKS =
+            MetricsRegistry.counter("formation.sequentialFallbacks"); // a pool was given but the input was too small
+    private static final Histogram PICKS_PER_TEAM = MetricsRegistry.histogram("formation.picksPerTeam");
+
+    public GreedyFormationStrategy() {
+        this(null);
+    }
+
+    public GreedyFormationStrategy(ForkJoinPool formationPool) {
+        this.formationPool = formationPool;
+    }
+
+    @Override
+    public String name() {
+        return "Greedy";
+    }
+
+    @Override
+    public String key() {
+        return "greedy";
+    }
+
+    @Override
+    public FormationResult formTeams(ParticipantTable table, int[] rows, int teamSize) {
+        int shardCount = shardCount(rows.length);
+        if (formationPool != null && shardCount == 1) SEQUENTIAL_FALLBACKS.increment();
+        LOG.info(() -> "Mode: " + (shardCount > 1 ? "PARALLEL (" + shardCount + " shards)" : "SEQUENTIAL"));
+
+        return shardCount > 1
+                ? formShardedTeams(table, rows, teamSize, shardCount)
+                : formShard(table, rows, teamSize);
+    }
+
+    // One shard per pool worker, as long as every shard keeps a useful number of participants
+    private int shardCount(int participants) {
+        if (formationPool == null) return 1;
+        return Math.max(1, Math.min(formationPool.getParallelism(), participants / MIN_SHARD_SIZE));
+    }
+
+    // Splits the pool into stratified shards, forms each shard on the fork-join pool,
+    // then runs one reconciliation pass over the merged leftovers
+    private FormationResult formShardedTeams(ParticipantTable table, int[] rows, int teamSize, int shardCount) {
+        int[][] shards = stratify(table, rows, shardCount);
+
+        List<ForkJoinTask<FormationResult>> tasks = new ArrayList<>();
+        for (int[] shard : shards) {
+            tasks.add(formationPool.submit(() -> formShard(table, shard, teamSize)));
+        }
+
+        // Collect in shard order so team order does not depend on thread timing
+        List<int[]> teams = new ArrayList<>();
+        IntList merged = new IntList();
+        for (ForkJoinTask<FormationResult> task : tasks) {
+            FormationResult result = task.join();
+            teams.addAll(result.teams());
+            merged.addAll(result.leftover());
+        }
+
+        LOG.info("Shards formed {} teams; reconciling {} leftovers", teams.size(), merged.size());
+        FormationResult reconciled = formShard(table, merged.toArray(), teamSize);
+        teams.addAll(reconciled.teams());
+        return new FormationResult(teams, reconciled.leftover());
+    }
+
+    // Deals each (personality, role, game) stratum round-robin across the shards, so every shard gets
+    // a proportional share of leaders, roles and games. The counter carries over between strata, which
+    // spreads the remainders of small strata evenly too.
+    private int[][] stratify(ParticipantTable table, int[] rows, int shardCount) {
+        int games = Math.max(1, table.gameCount());
+        Map<Integer, IntList> strata = new LinkedHashMap<>();
+        for (int row : rows) {
+            int key = (table.personalityOrdinal(row) * ROLE_COUNT + table.roleOrdinal(row)) * games + table.game(row);
+            strata.computeIfAbsent(key, k -> new IntList()).add(row);
+        }
+
+        IntList[] shards = new IntList[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new IntList(rows.length / shardCount + 1);
+
+        int next = 0;
+        for (IntList stratum : strata.values()) {
+            for (int i = 0; i < stratum.size(); i++) {
+                shards[next].add(stratum.get(i));
+                next = (next + 1) % shardCount;
+            }
+        }
+
+        int[][] result = new int[shardCount][];
+        for (int i = 0; i < shardCount; i++) result[i] = shards[i].toArray();
+        return result;
+    }
+
+    // Forms as many compliant teams as possible from the given rows. Holds no shared state,
+    // so shards (and other engines) can run it concurrently on the same table.
+    FormationResult formShard(ParticipantTable table, int[] rows, int teamSize) {
+        // Bucket the pool so picks and removals never rescan it
+        CandidateIndex pool = new CandidateIndex(table, rows);
+        List<int[]> teams = new ArrayList<>();
+
+        // Keep forming full teams while possible. A leader nobody fits with is set aside
+        // rather than ending formation, since the next leader may still complete a team.
+        IntList stuckLeaders = new IntList();
+        long[] picks = new long[teamSize]; // attempts by number of picks, added to the metrics once per shard
+        while (pool.size() >= teamSize) {
+            // Rule: team must have exactly one leader
+            int leader = pool.first(PersonalityType.LEADER);
+            if (leader == CandidateIndex.NONE) break; // Can't form a legal team
+
+            int[] members = tryMakeCompliantTeam(table, pool, leader, teamSize, picks);
+            if (members != null) {
+                teams.add(members);
+            } else {
+                pool.remove(leader);
+                stuckLeaders.add(pool.row(leader));
+            }
+        }
+
+        CANDIDATES_SCORED.add(pool.scoredCount());
+        for (int count = 0; count < picks.length; count++) PICKS_PER_TEAM.record(count, picks[count]);
+
+        IntList leftover = new IntList(pool.size() + stuckLeaders.size());
+        leftover.addAll(pool.drain());
+        leftover.addAll(stuckLeaders.toArray());
+        return new FormationResult(teams, leftover.toArray());
+    }
+
+    // Attempts to build a rule-compliant team around the leader slot, taking its members out of the pool.
+    // Returns the members' rows. On failure the picked players are put back so they can still land in an overflow team.
+    // Either way the attempt is counted in picks[players picked after the leader].
+    private int[] tryMakeCompliantTeam(ParticipantTable table, CandidateIndex pool, int leader, int teamSize,
+                                       long[] picks) {
+        int[] chosen = new int[teamSize]; // slots in the index
+        int count = 0;
+        TeamComposition composition = new TeamComposition(); // running counts for the chosen members
+
+        chosen[count++] = leader;
+        composition.add(table, pool.row(leader));
+        pool.remove(leader);
+
+        // Add remaining best players using scoring logic
+        while (count < teamSize && !pool.isEmpty()) {
+            int best = findBestPlayer(table, composition, pool);
+            if (best == CandidateIndex.NONE) break; // No valid candidate found
+            chosen[count++] = best;
+            composition.add(table, pool.row(best));
+            pool.remove(best);
+        }
+        picks[count - 1]++; // players picked after the leader
+
+        // Final validation
+        if (count == teamSize && TeamRules.hasEnoughRoles(composition)) {
+            int[] members = new int[teamSize];
+            for (int i = 0; i < teamSize; i++) members[i] = pool.row(chosen[i]);
+            return members;
+        }
+
+        for (int i = 0; i < count; i++) pool.add(chosen[i]);
+        return null;
+    }
+
+    // Best-fit candidate among the index buckets the team can still legally accept
+    private int findBestPlayer(ParticipantTable table, TeamComposition team, CandidateIndex pool) {
+        return pool.findBest(
+                type -> !TeamRules.personalityFull(team, PERSONALITIES[type]),
+                game -> team.countGame(game) < TeamRules.MAX_SAME_GAME,
+                row -> TeamRules.calculateScore(team, table, row));
+    }
+}
@@ -0,0 +1,15 @@
+package Service;
+
+import java.nio.file.Path;
+
+// Per-file result of a participant import: rows kept, rows rejected, and where the rejected lines went
+// (null when nothing was rejected)
+public record ImportReport(String file, long accepted, long rejected, Path quarantineFile) {
+
+    // One line for the console
+    public String summary() {
+        return rejected == 0
+                ? file + ": " + accepted + " rows accepted, none rejected"
+                : file + ": " + accepted + " rows accepted, " + rejected + " rejected (see " + quarantineFile + ")";
+    }
+}
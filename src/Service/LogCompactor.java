@@ -0,0 +1,236 @@
+package Service;
+
+import Utility.Logger;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Background compaction of an append-only participants file (see ParticipantLog). Deletes and edits only
+// append, so tombstones and the rows they delete pile up. Once they pass the configured share of the file,
+// a background thread copies the live lines into a temporary file and renames it over the original.
+//
+// Readers are never blocked: they take no lock, a reader that already opened the old file keeps reading
+// it, and the rename swaps the files atomically. Writers pause twice, briefly: once to mark where the
+// rewrite starts, and once while the lines appended since then are copied over and the files are swapped.
+// The dead-row counts are estimates kept from the appends; a scan replaces them on the first check.
+public class LogCompactor {
+
+    private final Path file;
+    private final double maxDeadRatio;
+    private final int minDeadRows;
+    private final Object writeLock;      // held by the file's writers while they append or rewrite
+    private final Runnable stopWriters;  // runs under writeLock; writers must reopen the file afterwards
+    private final Runnable onSwap;       // runs under writeLock right after the compacted file is in place
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long lines = -1; // data lines in the file, -1 until counted
+    private long dead;       // tombstones plus the rows they delete
+    private long generation; // bumped by fileRewritten(), so a rewrite started before it is dropped
+    private boolean scheduled;
+
+    public LogCompactor(Path file, double maxDeadRatio, int minDeadRows, Object writeLock,
+                        Runnable stopWriters, Runnable onSwap) {
+        if (maxDeadRatio <= 0 || maxDeadRatio >= 1) {
+            throw new IllegalArgumentException("Dead-row ratio must be between 0 and 1");
+        }
+        this.file = file;
+        this.maxDeadRatio = maxDeadRatio;
+        this.minDeadRows = minDeadRows;
+        this.writeLock = writeLock;
+        this.stopWriters = stopWriters;
+        this.onSwap = onSwap;
+    }
+
+    // Counts lines just appended (e.g. one tombstone: 1 line, 2 dead) and schedules a check when due
+    public synchronized void recordAppend(int appendedLines, int deadLines) {
+        if (lines >= 0) {
+            lines += appendedLines;
+            dead += deadLines;
+        }
+        if (!scheduled && (lines < 0 || due())) {
+            scheduled = true;
+            worker.submit(this::check);
+        }
+    }
+
+    // The file was rewritten in full by someone else (under writeLock); its counts are unknown again
+    public synchronized void fileRewritten() {
+        generation++;
+        lines = -1;
+        dead = 0;
+    }
+
+    private boolean due() {
+        return dead >= minDeadRows && dead > maxDeadRatio * lines;
+    }
+
+    private void check() {
+        try {
+            boolean count;
+            synchronized (this) {
+                count = lines < 0;
+            }
+            if (count) {
+                long[] counts = scan();
+                synchronized (this) {
+                    lines = counts[0];
+                    dead = counts[1];
+                }
+            }
+
+            boolean compact;
+            synchronized (this) {
+                compact = due();
+            }
+            if (compact) compact();
+        } catch (IOException | RuntimeException e) {
+            Logger.error("Compaction of " + file.getFileName() + " failed: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                scheduled = false;
+            }
+        }
+    }
+
+    // Data lines and dead lines (tombstones and the rows they delete) in the file as it is now
+    private long[] scan() throws IOException {
+        if (!Files.exists(file)) return new long[]{0, 0};
+        Fold fold = fold(Files.size(file));
+        return new long[]{fold.lines(), fold.dead().cardinality() + fold.tombstones()};
+    }
+
+    // Rewrites the file without tombstones and deleted rows
+    public void compact() throws IOException {
+        long start = System.currentTimeMillis();
+
+        // Writers stop at a line boundary, so everything before `cut` is complete lines
+        long cut;
+        long startGeneration;
+        synchronized (writeLock) {
+            stopWriters.run();
+            cut = Files.size(file);
+            synchronized (this) {
+                startGeneration = generation;
+            }
+        }
+
+        // Copy the live lines without holding any lock
+        Fold fold = fold(cut);
+        Path temp = Path.of(file + ".compact.tmp");
+        long kept = 0;
+        try (BufferedReader reader = prefixReader(cut);
+             BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header != null) {
+                writer.write(header);
+                writer.newLine();
+            }
+            int row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || ParticipantLog.tombstoneId(line) != null) continue;
+                if (!fold.dead().get(row++)) {
+                    writer.write(line);
+                    writer.newLine();
+                    kept++;
+                }
+            }
+        }
+
+        // Lines appended meanwhile are copied as they are, then the compacted file replaces the original
+        synchronized (writeLock) {
+            synchronized (this) {
+                if (generation != startGeneration) {
+                    Files.deleteIfExists(temp);
+                    Logger.info("Compaction of " + file.getFileName() + " dropped: file was rewritten meanwhile");
+                    return;
+                }
+            }
+            stopWriters.run();
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long size = source.size();
+                for (long at = cut; at < size; ) at += source.transferTo(at, size - at, target);
+                target.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                lines = kept; // an estimate again: lines appended meanwhile are not counted
+                dead = 0;
+            }
+            onSwap.run();
+        }
+
+        Logger.info("Compacted " + file.getFileName() + ": " + kept + " live rows kept, "
+                + (fold.dead().cardinality() + fold.tombstones()) + " dead lines dropped in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    // Folds the first `length` bytes: which data rows are dead. Rows are keyed by their first field, so
+    // rows a reader would reject are kept or dropped by the same ID rule.
+    private Fold fold(long length) throws IOException {
+        List<String> ids = new ArrayList<>();
+        List<ParticipantLog.Tombstone> tombstones = new ArrayList<>();
+        long count = 0;
+        try (BufferedReader reader = prefixReader(length)) {
+            reader.readLine(); // skip header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                count++;
+                String deleted = ParticipantLog.tombstoneId(line);
+                if (deleted != null) {
+                    tombstones.add(new ParticipantLog.Tombstone(deleted, ids.size()));
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                ids.add(comma < 0 ? line : line.substring(0, comma));
+            }
+        }
+        return new Fold(count, tombstones.size(), ParticipantLog.deadRows(ids.size(), ids::get, tombstones));
+    }
+
+    // Lines of the first `length` bytes of the file
+    private BufferedReader prefixReader(long length) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        InputStream in = new FilterInputStream(Channels.newInputStream(channel)) {
+            private long left = length;
+
+            @Override
+            public int read() throws IOException {
+                if (left <= 0) return -1;
+                int b = super.read();
+                if (b >= 0) left--;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int count) throws IOException {
+                if (left <= 0) return -1;
+                int n = super.read(bytes, offset, (int) Math.min(count, left));
+                if (n > 0) left -= n;
+                return n;
+            }
+        };
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private record Fold(long lines, int tombstones, BitSet dead) {
+    }
+}
@@ -0,0 +1,85 @@
+package Service;
+
+import Model.Participant;
+import Model.ParticipantTable;
+import Utility.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Runs several independently seeded formation passes side by side and keeps the best one:
+// fewest overflow teams first, then lowest skill variance across the compliant teams.
+// The winner's replay code reproduces it exactly through TeamBuilder.replay().
+public class MultiStartFormation {
+
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    private final ParticipantTable table; // built once and shared read-only by every pass
+    private final int teamSize;
+    private final TeamFormationStrategy strategy;
+    private final ForkJoinPool formationPool; // null runs the passes one after another
+
+    public MultiStartFormation(List<Participant> participants, int teamSize,
+                               TeamFormationStrategy strategy, ForkJoinPool formationPool) {
+        this(ParticipantTable.of(participants), teamSize, strategy, formationPool);
+    }
+
+    public MultiStartFormation(ParticipantTable table, int teamSize,
+                               TeamFormationStrategy strategy, ForkJoinPool formationPool) {
+        this.table = table;
+        this.teamSize = teamSize;
+        this.strategy = strategy;
+        this.formationPool = formationPool;
+    }
+
+    // Seeds for the passes are drawn from masterSeed, so the whole search is repeatable too
+    public StartResult run(int starts, long masterSeed) {
+        if (starts < 1) {
+            throw new IllegalArgumentException("Need at least one formation pass");
+        }
+
+        SplittableRandom seeds = new SplittableRandom(masterSeed);
+        List<ForkJoinTask<StartResult>> tasks = new ArrayList<>();
+        List<StartResult> results = new ArrayList<>();
+
+        for (int i = 0; i < starts; i++) {
+            long seed = seeds.nextLong();
+            if (formationPool == null) {
+                results.add(runStart(seed));
+            } else {
+                tasks.add(formationPool.submit(() -> runStart(seed)));
+            }
+        }
+        for (ForkJoinTask<StartResult> task : tasks) results.add(task.join());
+
+        // Earlier passes win ties so the choice never depends on which thread finished first
+        StartResult best = null;
+        for (StartResult result : results) {
+            if (best == null || result.isBetterThan(best)) best = result;
+        }
+
+        StartResult chosen = best;
+        LOG.info(() -> String.format("Multi-start: best of %d passes has %d overflow teams, skill variance %.4f (replay %s)",
+                starts, chosen.overflowTeams(), chosen.skillVariance(), chosen.replayCode()));
+        return chosen;
+    }
+
+    private StartResult runStart(long seed) {
+        TeamBuilder builder = new TeamBuilder(table, teamSize, strategy, formationPool);
+        builder.formTeams(seed);
+        return new StartResult(builder, builder.getOverflowTeamCount(),
+                builder.getLastBalanceReport().varianceAfter(), builder.getReplayCode());
+    }
+
+    // One formation pass and how it scored
+    public record StartResult(TeamBuilder builder, int overflowTeams, double skillVariance, String replayCode) {
+
+        boolean isBetterThan(StartResult other) {
+            if (overflowTeams != other.overflowTeams) return overflowTeams < other.overflowTeams;
+            return skillVariance < other.skillVariance;
+        }
+    }
+}
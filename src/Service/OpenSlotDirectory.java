@@ -0,0 +1,161 @@
+package Service;
+
+import Model.Participant;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.Team;
+import Model.TeamComposition;
+
+import java.util.*;
+
+// Directory of teams that still have open slots, indexed by what they can accept, so a newcomer is
+// placed without scanning every team. Teams are grouped by "shape": which capped personalities are
+// still open and which roles are already present. Those two decide everything in the fit score except
+// the skill term, so within a shape the teams are kept sorted by average skill and the best fit is the
+// nearest average to the newcomer's skill. The teams of a shape are further split by the games they are
+// already full on (an open team is full on at most a few), so teams that cannot take the newcomer's game
+// are skipped a whole group at a time rather than one by one. A lookup visits the open shapes (at most 256)
+// and does one sorted-set search per group that accepts the game: O(g log n), where g is the number of
+// distinct full-game sets in a shape. That stays small even when one game dominates the pool.
+public class OpenSlotDirectory {
+
+    private static final PersonalityType[] CAPPED = {
+            PersonalityType.LEADER, PersonalityType.THINKER, PersonalityType.SOCIALIZER};
+    private static final int ROLE_COUNT = RoleType.values().length;
+    private static final int SHAPES = (1 << CAPPED.length) << ROLE_COUNT;
+
+    // Teams in one group, ordered by average skill, then team id
+    private static final Comparator<Entry> BY_SKILL = Comparator
+            .comparingDouble(Entry::avgSkill)
+            .thenComparingInt(Entry::teamId);
+
+    private final int teamSize;
+    // Per shape: its teams grouped by the games they are full on
+    private final List<Map<List<Integer>, TreeSet<Entry>>> shapes = new ArrayList<>(SHAPES);
+    private final TreeSet<Entry> bySize = new TreeSet<>(Comparator
+            .comparingInt((Entry entry) -> -entry.size())
+            .thenComparingInt(Entry::teamId));
+    private final Map<Team, Entry> entries = new IdentityHashMap<>();
+
+    public OpenSlotDirectory(int teamSize) {
+        this.teamSize = teamSize;
+        for (int i = 0; i < SHAPES; i++) shapes.add(new HashMap<>());
+    }
+
+    // Re-files a team after its members changed; full teams drop out of the directory
+    public void update(Team team) {
+        remove(team);
+        TeamComposition composition = team.getComposition();
+        if (composition.getSize() >= teamSize) return;
+
+        double avgSkill = composition.getSize() == 0 ? 5 : composition.avgSkill(); // as TeamRules scores an empty team
+        Entry entry = new Entry(team, team.getTeam_id(), avgSkill, composition.getSize(), shapeOf(composition),
+                fullGames(composition));
+        shapes.get(entry.shape()).computeIfAbsent(entry.fullGames(), games -> new TreeSet<>(BY_SKILL)).add(entry);
+        bySize.add(entry);
+        entries.put(team, entry);
+    }
+
+    public void remove(Team team) {
+        Entry entry = entries.remove(team);
+        if (entry != null) {
+            Map<List<Integer>, TreeSet<Entry>> groups = shapes.get(entry.shape());
+            TreeSet<Entry> group = groups.get(entry.fullGames());
+            group.remove(entry);
+            if (group.isEmpty()) groups.remove(entry.fullGames()); // keeps the group count per shape down
+            bySize.remove(entry);
+        }
+    }
+
+    public void clear() {
+        for (Map<List<Integer>, TreeSet<Entry>> groups : shapes) groups.clear();
+        bySize.clear();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Highest scoring open team (TeamRules.calculateScore) the participant can join without breaking
+    // a rule, or null if there is none
+    public Team findBest(Participant participant) {
+        PersonalityType type = participant.getPersonalityType();
+        int cappedIndex = cappedIndex(type);
+        int roleBit = 1 << participant.getPreferredRole().ordinal();
+        double skill = participant.getSkillLevel();
+        Integer game = participant.getGameId();
+
+        Entry best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int shape = 0; shape < SHAPES; shape++) {
+            Map<List<Integer>, TreeSet<Entry>> groups = shapes.get(shape);
+            if (groups.isEmpty()) continue;
+
+            int openMask = shape >>> ROLE_COUNT;
+            if (cappedIndex >= 0 && (openMask & (1 << cappedIndex)) == 0) continue; // personality full
+
+            // Same terms as TeamRules.calculateScore, minus the skill distance
+            double bonus = 15;
+            if (((shape & ((1 << ROLE_COUNT) - 1)) & roleBit) == 0) bonus += 25;
+            if (type == PersonalityType.THINKER) bonus += 10; // thinker slot is open, so fewer than 2 thinkers
+
+            for (Map.Entry<List<Integer>, TreeSet<Entry>> group : groups.entrySet()) {
+                if (group.getKey().contains(game)) continue; // every team here already has two of the game
+
+                Entry nearest = nearest(group.getValue(), skill);
+                double score = bonus - Math.abs(skill - nearest.avgSkill());
+                if (score > bestScore || (score == bestScore && nearest.teamId() < best.teamId())) {
+                    bestScore = score;
+                    best = nearest;
+                }
+            }
+        }
+        return best == null ? null : best.team();
+    }
+
+    // Any open team, preferring the fullest so partial teams are completed before others are started
+    public Team findFullest() {
+        return bySize.isEmpty() ? null : bySize.first().team();
+    }
+
+    // Team whose average skill is nearest the newcomer's; a non-empty group always has one
+    private static Entry nearest(TreeSet<Entry> teams, double skill) {
+        Entry probe = new Entry(null, Integer.MIN_VALUE, skill, 0, -1, List.of());
+        Entry above = teams.ceiling(probe);
+        Entry below = teams.lower(probe);
+
+        if (above == null) return below;
+        if (below == null) return above;
+        return above.avgSkill() - skill < skill - below.avgSkill() ? above : below;
+    }
+
+    // Games the team cannot take another player of, as a group key
+    private static List<Integer> fullGames(TeamComposition composition) {
+        int[] games = composition.gamesWithAtLeast(TeamRules.MAX_SAME_GAME);
+        if (games.length == 0) return List.of();
+        Integer[] boxed = new Integer[games.length];
+        for (int i = 0; i < games.length; i++) boxed[i] = games[i];
+        return List.of(boxed);
+    }
+
+    // Shape = (open capped personalities) << roles | roles present
+    private static int shapeOf(TeamComposition composition) {
+        int open = 0;
+        for (int i = 0; i < CAPPED.length; i++) {
+            if (!TeamRules.personalityFull(composition, CAPPED[i])) open |= 1 << i;
+        }
+        return (open << ROLE_COUNT) | composition.getRoleMask();
+    }
+
+    private static int cappedIndex(PersonalityType type) {
+        for (int i = 0; i < CAPPED.length; i++) {
+            if (CAPPED[i] == type) return i;
+        }
+        return -1; // uncapped (balanced)
+    }
+
+    private record Entry(Team team, int teamId, double avgSkill, int size, int shape, List<Integer> fullGames) {
+    }
+}
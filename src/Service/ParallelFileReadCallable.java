@@ -1,23 +1,70 @@
 package Service;
 
-import Exception.InvalidSurveyDataException;
 import Model.Participant;
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import Utility.GzipFiles;
+import Utility.Histogram;
 import Utility.Logger;
+import Utility.MetricsRegistry;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
-public class ParallelFileReadCallable implements Callable<List<Participant>> {
+// Reads a participants CSV in parallel straight from a memory-mapped file. The file is cut into byte
+// ranges that start on line boundaries, each worker parses its range field by field from the bytes
+// into its own ParticipantTable, and the tables are appended in file order at the end.
+// Rows are validated exactly like CSVHandler.parseLineToParticipant, but the parser returns a RowStatus
+// instead of throwing: a bad row is set aside and parsing carries on. Rejected lines are written with
+// their line number and reason to a quarantine CSV next to the input (<name>.rejected.csv), and the
+// accepted/rejected counts are logged and kept in an ImportReport.
+// Gzip input is detected by its magic bytes: the members of a block gzip file are inflated in parallel,
+// a plain gzip stream on the calling thread, and the text is parsed in line-aligned chunks.
+// CSVHandler's sequential readers go through the same parser (readLines, parseLine), so every import path
+// validates, quarantines and reports rows the same way.
+public class ParallelFileReadCallable implements Callable<ParticipantTable> {
+
+    private static final long MAX_RANGE_BYTES = 1L << 30; // one mapping must stay below 2 GB
+    private static final int BOUNDARY_WINDOW = 64 * 1024;  // bytes mapped at a time while looking for a newline
+    private static final int BLOCK_BYTES = 1 << 20;       // bytes copied out of the mapping per bulk get
+    private static final int GZIP_BLOCKS_PER_TASK = 16;   // ~1 MB of text per inflate task
+    private static final int COLUMNS = 8;
+
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+    private static final byte[][] ROLE_NAMES = enumNames(ROLES);
+    private static final byte[][] PERSONALITY_NAMES = enumNames(PERSONALITIES);
+
+    private static final Logger.Category LOG = Logger.category("reader");
+
+    // Ingest metrics, also recorded by StreamingFormationPipeline
+    private static final MetricsRegistry.Counter ROWS_ACCEPTED = MetricsRegistry.counter("ingest.rows");
+    private static final MetricsRegistry.Counter ROWS_REJECTED = MetricsRegistry.counter("ingest.rejects");
+    private static final MetricsRegistry.Gauge ROWS_PER_SECOND = MetricsRegistry.gauge("ingest.rowsPerSecond");
+    private static final Histogram READ_MILLIS = MetricsRegistry.histogram("ingest.read.millis");
 
     private final String filePath;
     private final ExecutorService executor;
     private final int numThreads;
-    private final CSVHandler csvHandler = new CSVHandler(); // used by each worker to parse lines
+    private volatile ImportReport report;
 
     public ParallelFileReadCallable(String filePath, ExecutorService executor, int numThreads) {
         this.filePath = filePath;
@@ -26,58 +73,516 @@ public class ParallelFileReadCallable implements Callable<List<Participant>> {
     }
 
     @Override
-    public List<Participant> call() throws Exception {
-        Logger.info("ParallelFileReadCallable: Reading CSV in parallel from: " + filePath);
+    public ParticipantTable call() throws Exception {
+        LOG.info("ParallelFileReadCallable: Reading CSV in parallel from: {}", filePath);
+        if (GzipFiles.isGzip(Path.of(filePath))) return readCompressed();
 
-        List<String> allLines = Files.readAllLines(new File(filePath).toPath());
-        if (allLines.size() <= 1) return new ArrayList<>(); // no data beyond header
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long dataStart = nextLineStart(channel, 0, fileSize); // skip header
+            if (dataStart >= fileSize) { // no data beyond header
+                report = quarantine(filePath, List.of(), 0);
+                return new ParticipantTable();
+            }
 
-        allLines.removeFirst(); // drop header before partitioning
+            long[] bounds = splitOnLines(channel, dataStart, fileSize);
+            int ranges = bounds.length - 1;
 
-        int totalLines = allLines.size();
-        int chunkSize = (int) Math.ceil((double) totalLines / numThreads); // balanced chunk size per thread
+            long startTime = System.currentTimeMillis();
+            LOG.info("START: ParallelFileReadCallable with {} ranges on {} threads", ranges, numThreads);
 
-        List<Future<List<Participant>>> futures = new ArrayList<>();
+            List<Future<RangeResult>> futures = new ArrayList<>();
+            for (int i = 0; i < ranges; i++) {
+                int rangeNum = i; // keep stable range ID for better logging info
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                futures.add(executor.submit(() -> parseRange(channel, start, end, rangeNum)));
+            }
+
+            // Merge the per-worker tables in range order, so rows keep their file order
+            Merger merger = new Merger();
+            for (Future<RangeResult> f : futures) {
+                merger.add(f.get());
+            }
+            return finish(merger, startTime);
+        }
+    }
 
+    // The same import on the calling thread, from lines a reader hands over one at a time (no mapping and
+    // no executor needed). Fills getReport() like call().
+    public ParticipantTable readLines(BufferedReader reader) throws IOException {
         long startTime = System.currentTimeMillis();
-        Logger.info("START: ParallelFileReadCallable with " + numThreads + " threads");
+        RowParser parser = new RowParser(new ParticipantTable());
+        if (reader.readLine() != null) { // skip header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                parser.line(bytes, 0, bytes.length);
+            }
+        }
 
-        for (int i = 0; i < numThreads; i++) {
-            int threadNum = i; // keep stable thread ID for better logging info
-            int start = i * chunkSize;
-            int end = Math.min((i + 1) * chunkSize, totalLines);
-            List<String> subList = allLines.subList(start, end); // slice assigned to this worker
+        Merger merger = new Merger();
+        merger.add(parser.result());
+        return finish(merger, startTime);
+    }
 
-            // Each submitted task parses its own chunk of raw CSV lines
-            futures.add(executor.submit(() -> {
-                Logger.info("Thread-" + threadNum + " processing lines " + start + " to " + end);
+    // Validates one line and, if it is a participant row, appends it to the table. Never throws for bad data.
+    static RowStatus parseLine(String line, ParticipantTable table) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return new RowParser(table).parse(bytes, 0, bytes.length);
+    }
 
-                List<Participant> chunkParticipants = new ArrayList<>();
+    // Inflates and parses a gzip file. Block gzip members are inflated on the executor a group at a time;
+    // a plain gzip stream is inflated here. The text is cut into line-aligned chunks parsed on the executor.
+    // At most a window of tasks of each kind is in flight, so memory stays bounded for any file size.
+    private ParticipantTable readCompressed() throws Exception {
+        Path path = Path.of(filePath);
+        long[] blocks = GzipFiles.blockOffsets(path);
+        int window = Math.max(2, numThreads * 2);
 
-                try {
-                    for (String line : subList) {
-                        chunkParticipants.add(csvHandler.parseLineToParticipant(line)); // shared parser enforces strict validation
+        long startTime = System.currentTimeMillis();
+        LOG.info(() -> "START: ParallelFileReadCallable on " + numThreads + " threads from "
+                + (blocks == null ? "a gzip stream" : (blocks.length - 1) + " gzip blocks"));
+
+        Merger merger = new Merger();
+        Deque<Future<byte[]>> inflating = new ArrayDeque<>();
+        Deque<Future<RangeResult>> parsing = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             InputStream stream = blocks == null ? GzipFiles.openInput(path) : null) {
+            int nextBlock = 0;
+            byte[] carry = new byte[0];
+            boolean headerSkipped = false;
+
+            while (true) {
+                byte[] text;
+                if (stream == null) {
+                    while (inflating.size() < window && nextBlock < blocks.length - 1) {
+                        int last = Math.min(blocks.length - 1, nextBlock + GZIP_BLOCKS_PER_TASK);
+                        long from = blocks[nextBlock];
+                        long to = blocks[last];
+                        inflating.add(executor.submit(() -> GzipFiles.inflateBlocks(channel, from, to)));
+                        nextBlock = last;
                     }
-                } catch (InvalidSurveyDataException e) {
-                    // surfaces parsing issues without killing all threads
-                    Logger.error("CSV parsing error: " + e.getMessage());
-                    System.err.println("\nCSV parsing error: " + e.getMessage());
+                    text = inflating.isEmpty() ? null : inflating.poll().get();
+                } else {
+                    text = stream.readNBytes(BLOCK_BYTES);
+                    if (text.length == 0) text = null;
                 }
+                if (text == null) break;
 
-                Logger.info("Thread-" + threadNum + " completed");
-                return chunkParticipants;
-            }));
-        }
+                // Complete lines go to a parse task; a line cut by the chunk end waits for the next chunk
+                byte[] bytes = Arrays.copyOf(carry, carry.length + text.length);
+                System.arraycopy(text, 0, bytes, carry.length, text.length);
+                int from = 0;
+                if (!headerSkipped) {
+                    from = indexOf(bytes, (byte) '\n', 0, bytes.length) + 1;
+                    if (from == 0) { // header not complete yet
+                        carry = bytes;
+                        continue;
+                    }
+                    headerSkipped = true;
+                }
+                int end = lastLineEnd(bytes, from, bytes.length);
+                if (end > from) {
+                    int chunkFrom = from;
+                    parsing.add(executor.submit(() -> parseChunk(bytes, chunkFrom, end)));
+                    if (parsing.size() > window) merger.add(parsing.poll().get());
+                }
+                carry = Arrays.copyOfRange(bytes, end, bytes.length);
+            }
 
-        // Collect results from all worker tasks
-        List<Participant> participants = new ArrayList<>();
-        for (Future<List<Participant>> f : futures) {
-            participants.addAll(f.get()); // safe because each thread returns its isolated list
+            if (headerSkipped && carry.length > 0) { // last line without a newline
+                byte[] last = carry;
+                parsing.add(executor.submit(() -> parseChunk(last, 0, last.length)));
+            }
+            while (!parsing.isEmpty()) merger.add(parsing.poll().get());
+        } finally {
+            for (Future<?> pending : inflating) pending.cancel(true); // only left over after a failure
+            for (Future<?> pending : parsing) pending.cancel(true);
         }
+        return finish(merger, startTime);
+    }
 
-        long endTime = System.currentTimeMillis();
-        Logger.info("COMPLETED: CSV read in " + (endTime - startTime) + "ms");
+    // Folds the tombstones into the merged rows, quarantines the rejects and logs the counts
+    private ParticipantTable finish(Merger merger, long startTime) throws IOException {
+        BitSet dead = ParticipantLog.deadRows(merger.participants, merger.tombstones);
+        ParticipantTable participants = ParticipantLog.compact(merger.participants, dead);
+        report = quarantine(filePath, merger.rejects, participants.size());
 
+        long endTime = System.currentTimeMillis();
+        recordIngest(participants.size(), merger.rejects.size(), endTime - startTime);
+        LOG.info("COMPLETED: CSV read in {}ms ({} accepted, {} rejected, {} deleted)",
+                endTime - startTime, participants.size(), merger.rejects.size(), dead.cardinality());
         return participants;
     }
+
+    // Parses the lines of bytes[from, to) into a new table; the last line may lack its newline.
+    // Shared with StreamingFormationPipeline.
+    static RangeResult parseChunk(byte[] bytes, int from, int to) {
+        RowParser parser = new RowParser(new ParticipantTable());
+        int lineStart = from;
+        for (int i = from; i <= to; i++) {
+            boolean end = i == to;
+            if (!end && bytes[i] != '\n') continue;
+            if (end && lineStart == i) break; // chunk ended with a newline
+
+            parser.line(bytes, lineStart, i);
+            lineStart = i + 1;
+        }
+        return parser.result();
+    }
+
+    // Adds one finished import to the ingest metrics. Shared with StreamingFormationPipeline.
+    static void recordIngest(long accepted, long rejected, long millis) {
+        ROWS_ACCEPTED.add(accepted);
+        ROWS_REJECTED.add(rejected);
+        READ_MILLIS.record(millis);
+        ROWS_PER_SECOND.set((accepted + rejected) * 1000 / Math.max(1, millis));
+    }
+
+    // Position just after the last '\n' in bytes[from, to), or `from` if there is none
+    private static int lastLineEnd(byte[] bytes, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == '\n') return i + 1;
+        }
+        return from;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) return i;
+        }
+        return -1;
+    }
+
+    // Counts of the last call(), or null before it finished
+    public ImportReport getReport() {
+        return report;
+    }
+
+    // Writes the rejected lines (or removes a quarantine file left by an earlier import) and reports the counts.
+    // Shared with StreamingFormationPipeline.
+    static ImportReport quarantine(String filePath, List<Reject> rejects, long accepted) throws IOException {
+        Path file = quarantinePath(filePath);
+        if (rejects.isEmpty()) {
+            Files.deleteIfExists(file);
+            LOG.info("Imported {}: {} rows accepted, none rejected", filePath, accepted);
+            return new ImportReport(filePath, accepted, 0, null);
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("LineNumber,Status,Reason,Line\n");
+            for (Reject reject : rejects) {
+                writer.write(reject.line() + "," + reject.status() + "," + CSVHandler.escapeCSV(reject.status().getReason())
+                        + "," + CSVHandler.escapeCSV(reject.text()) + "\n");
+            }
+        }
+        LOG.warning("Imported {}: {} rows accepted, {} rejected (see {})", filePath, accepted, rejects.size(), file);
+        System.err.println("\n" + rejects.size() + " invalid rows skipped; see " + file);
+        return new ImportReport(filePath, accepted, rejects.size(), file);
+    }
+
+    static Path quarantinePath(String filePath) {
+        String base = GzipFiles.isCompressedName(filePath)
+                ? filePath.substring(0, filePath.length() - GzipFiles.SUFFIX.length()) : filePath;
+        if (base.endsWith(".csv")) base = base.substring(0, base.length() - 4);
+        return Path.of(base + ".rejected.csv");
+    }
+
+    // Range boundaries: one range per thread (more for huge files), each starting right after a newline
+    private long[] splitOnLines(FileChannel channel, long dataStart, long fileSize) throws IOException {
+        long dataSize = fileSize - dataStart;
+        int ranges = (int) Math.max(Math.max(numThreads, 1), (dataSize + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+
+        long[] bounds = new long[ranges + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < ranges; i++) {
+            long nominal = dataStart + dataSize * i / ranges;
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, nominal - 1, fileSize));
+        }
+        bounds[ranges] = fileSize;
+        return bounds;
+    }
+
+    // Position just after the first '\n' at or after `from`, or the end of the file
+    private static long nextLineStart(FileChannel channel, long from, long fileSize) throws IOException {
+        for (long at = from; at < fileSize; at += BOUNDARY_WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(BOUNDARY_WINDOW, fileSize - at));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') return at + i + 1;
+            }
+        }
+        return fileSize;
+    }
+
+    // Parses every line of one range into a table owned by this worker; bad lines are collected, not thrown
+    private RangeResult parseRange(FileChannel channel, long start, long end, int rangeNum) throws IOException {
+        LOG.debug("Thread-{} processing bytes {} to {}", rangeNum, start, end);
+
+        RowParser parser = new RowParser(new ParticipantTable());
+        if (end <= start) return parser.result();
+
+        MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+
+        // Bulk-copy the mapping block by block (much faster than byte-wise gets) and parse the lines
+        // in place; a line cut by the block end is moved to the front of the next block
+        byte[] block = new byte[(int) Math.min(BLOCK_BYTES, end - start)];
+        int length = range.limit();
+        int position = 0;
+        int carry = 0;
+        while (position < length) {
+            int read = Math.min(block.length - carry, length - position);
+            range.get(position, block, carry, read);
+            position += read;
+
+            int filled = carry + read;
+            int lineStart = 0;
+            for (int i = carry; i < filled; i++) {
+                if (block[i] == '\n') {
+                    parser.line(block, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+
+            carry = filled - lineStart;
+            if (carry == block.length) {
+                block = Arrays.copyOf(block, block.length * 2); // one line longer than a block
+            } else {
+                System.arraycopy(block, lineStart, block, 0, carry);
+            }
+        }
+        if (carry > 0) { // last line without a newline
+            parser.line(block, 0, carry);
+        }
+
+        RangeResult result = parser.result();
+        LOG.debug("Thread-{} completed ({} accepted, {} rejected)", rangeNum, result.table().size(),
+                result.rejects().size());
+        return result;
+    }
+
+    private static byte[][] enumNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        return names;
+    }
+
+    // Per-worker line parser working on byte offsets into the current block; only the text columns allocate.
+    // Keeps the worker's rejected lines and tombstones alongside its table.
+    private static final class RowParser {
+        private final ParticipantTable table;
+        private final List<Reject> rejects = new ArrayList<>();
+        private final List<ParticipantLog.Tombstone> tombstones = new ArrayList<>();
+        private final GameCache games = new GameCache();
+        private final int[] fieldStart = new int[COLUMNS];
+        private final int[] fieldEnd = new int[COLUMNS];
+        private byte[] line;
+        private int lineFrom, lineTo;
+        private int lines;
+
+        RowParser(ParticipantTable table) {
+            this.table = table;
+        }
+
+        // Parses the next line of the range and files it as a row, a rejected line or a tombstone
+        void line(byte[] bytes, int from, int to) {
+            RowStatus status = parse(bytes, from, to);
+            if (status.isRejected()) {
+                rejects.add(new Reject(lines, status, lineText()));
+            } else if (status == RowStatus.TOMBSTONE) {
+                tombstones.add(new ParticipantLog.Tombstone(ParticipantLog.tombstoneId(lineText()), table.size()));
+            }
+            lines++;
+        }
+
+        RangeResult result() {
+            return new RangeResult(table, lines, rejects, tombstones);
+        }
+
+        private RowStatus parse(byte[] bytes, int from, int to) {
+            line = bytes;
+            lineFrom = from;
+            lineTo = to;
+
+            if (isBlank()) return RowStatus.BLANK;
+            if (startsWith(ParticipantLog.TOMBSTONE_PREFIX)) return RowStatus.TOMBSTONE;
+            if (!splitFields()) return RowStatus.WRONG_COLUMN_COUNT;
+
+            // Same checks, in the same order, as parseLineToParticipant
+            long skill = parseInt(4);
+            if (skill == Long.MIN_VALUE) return RowStatus.INVALID_NUMBER;
+            int role = matchName(5, ROLE_NAMES);
+            long score = parseInt(6);
+            int personality = matchName(7, PERSONALITY_NAMES);
+            if (role >= 0 && score == Long.MIN_VALUE) return RowStatus.INVALID_NUMBER;
+            if (role < 0 || personality < 0) return RowStatus.INVALID_ENUM;
+
+            table.add(text(0), text(1), text(2), games.idOf(line, fieldStart[3], fieldEnd[3]),
+                    (int) skill, ROLES[role], (int) score, PERSONALITIES[personality]);
+            return RowStatus.ACCEPTED;
+        }
+
+        // The line just parsed, without its line ending; only built for rejected rows and tombstones
+        private String lineText() {
+            int end = lineTo > lineFrom && line[lineTo - 1] == '\r' ? lineTo - 1 : lineTo;
+            return new String(line, lineFrom, end - lineFrom, StandardCharsets.UTF_8);
+        }
+
+        // Finds the first eight comma-separated fields, trimmed. Like String.split, trailing empty
+        // fields do not count towards the eight.
+        private boolean splitFields() {
+            int fields = 0;
+            int nonEmptyFields = 0; // fields up to and including the last non-empty one
+            int start = lineFrom;
+            for (int i = lineFrom; i <= lineTo; i++) {
+                if (i < lineTo && line[i] != ',') continue;
+                if (fields < COLUMNS) {
+                    fieldStart[fields] = start;
+                    fieldEnd[fields] = i;
+                }
+                fields++;
+                if (i > start) nonEmptyFields = fields;
+                start = i + 1;
+            }
+            if (nonEmptyFields < COLUMNS) return false;
+
+            for (int f = 0; f < COLUMNS; f++) trim(f);
+            return true;
+        }
+
+        private void trim(int field) {
+            int from = fieldStart[field], to = fieldEnd[field];
+            while (from < to && (line[from] & 0xFF) <= ' ') from++;
+            while (to > from && (line[to - 1] & 0xFF) <= ' ') to--;
+            fieldStart[field] = from;
+            fieldEnd[field] = to;
+        }
+
+        // Signed decimal int, or Long.MIN_VALUE if the field is not one
+        private long parseInt(int field) {
+            int from = fieldStart[field], to = fieldEnd[field];
+            boolean negative = false;
+            if (from < to && (line[from] == '-' || line[from] == '+')) negative = line[from++] == '-';
+            if (from == to) return Long.MIN_VALUE;
+
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = line[i] - '0';
+                if (digit < 0 || digit > 9) return Long.MIN_VALUE;
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) return Long.MIN_VALUE;
+            }
+            value = negative ? -value : value;
+            return value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+        }
+
+        // Index of the enum name the field spells (case-insensitive), or -1
+        private int matchName(int field, byte[][] names) {
+            int from = fieldStart[field], length = fieldEnd[field] - from;
+            for (int n = 0; n < names.length; n++) {
+                byte[] name = names[n];
+                if (name.length != length) continue;
+                int i = 0;
+                while (i < length && upper(line[from + i]) == name[i]) i++;
+                if (i == length) return n;
+            }
+            return -1;
+        }
+
+        private static byte upper(byte b) {
+            return b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+        }
+
+        private String text(int field) {
+            return new String(line, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        }
+
+        private boolean startsWith(byte[] prefix) {
+            if (lineTo - lineFrom < prefix.length) return false;
+            for (int i = 0; i < prefix.length; i++) {
+                if (line[lineFrom + i] != prefix[i]) return false;
+            }
+            return true;
+        }
+
+        private boolean isBlank() {
+            for (int i = lineFrom; i < lineTo; i++) {
+                if ((line[i] & 0xFF) > ' ') return false;
+            }
+            return true;
+        }
+    }
+
+    // One worker's rows, how many lines its range held, its rejected lines (line numbers relative to the range)
+    // and its tombstones (row counts relative to the range)
+    record RangeResult(ParticipantTable table, int lines, List<Reject> rejects,
+                       List<ParticipantLog.Tombstone> tombstones) {
+    }
+
+    record Reject(int line, RowStatus status, String text) {
+    }
+
+    // Appends range results in file order and turns the rejects' range-local line numbers into file line numbers
+    private static final class Merger {
+        private final ParticipantTable participants = new ParticipantTable();
+        private final List<Reject> rejects = new ArrayList<>();
+        private final List<ParticipantLog.Tombstone> tombstones = new ArrayList<>();
+        private int firstLine = 2; // line 1 is the header
+
+        void add(RangeResult result) {
+            for (ParticipantLog.Tombstone tombstone : result.tombstones()) {
+                tombstones.add(new ParticipantLog.Tombstone(tombstone.id(),
+                        participants.size() + tombstone.rowsBefore()));
+            }
+            participants.addAll(result.table());
+            for (Reject reject : result.rejects()) {
+                rejects.add(new Reject(firstLine + reject.line(), reject.status(), reject.text()));
+            }
+            firstLine += result.lines();
+        }
+    }
+
+    // Worker-local map from game-name bytes to Participant.GAME_SYMBOLS ids, so a game's String is
+    // only built the first time the worker sees it
+    private static final class GameCache {
+        private byte[][] keys = new byte[64][];
+        private int[] ids = new int[64];
+        private int count;
+
+        int idOf(byte[] bytes, int from, int to) {
+            int mask = keys.length - 1;
+            for (int slot = hash(bytes, from, to) & mask; ; slot = (slot + 1) & mask) {
+                byte[] key = keys[slot];
+                if (key == null) {
+                    int id = Participant.GAME_SYMBOLS.intern(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+                    keys[slot] = Arrays.copyOfRange(bytes, from, to);
+                    ids[slot] = id;
+                    if (++count * 2 > keys.length) rehash();
+                    return id;
+                }
+                if (Arrays.equals(key, 0, key.length, bytes, from, to)) return ids[slot];
+            }
+        }
+
+        private void rehash() {
+            byte[][] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new byte[oldKeys.length * 2][];
+            ids = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) continue;
+                int slot = hash(oldKeys[i], 0, oldKeys[i].length) & mask;
+                while (keys[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+
+        private static int hash(byte[] bytes, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) hash = 31 * hash + bytes[i];
+            return hash ^ (hash >>> 16);
+        }
+    }
 }
@@ -1,35 +1,78 @@
 package Service;
 
 import Model.*;
+import Utility.Histogram;
 import Utility.Logger;
+import Utility.MetricsRegistry;
 import java.util.*;
 import java.util.concurrent.*;
 
 // Callable implementation to allow parallel execution of team formation
 public class ParallelTeamFormationCallable implements Callable<TeamBuilder> {
 
-    private final List<Participant> participants; // Participants to group into teams
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    // End-to-end formation time, also recorded by StreamingFormationPipeline
+    static final Histogram FORMATION_MILLIS = MetricsRegistry.histogram("formation.millis");
+
+    private final ParticipantTable participants; // Participants to group into teams
     private final int teamSize; // Size of each team
-    private final ExecutorService executor; // Executor for potential parallel tasks during formation
+    private final TeamFormationStrategy strategy; // Engine that picks the compliant teams
+    private final ForkJoinPool formationPool; // Pool for the parallel formation and balancing phases
+    private final int starts; // Seeded passes to run; the best one is kept
+    private final String replayCode; // Replays an earlier result instead of searching (null = fresh run)
+
+    public ParallelTeamFormationCallable(List<Participant> participants, int teamSize, ForkJoinPool formationPool) {
+        this(participants, teamSize, new GreedyFormationStrategy(formationPool), formationPool);
+    }
+
+    public ParallelTeamFormationCallable(List<Participant> participants, int teamSize,
+                                         TeamFormationStrategy strategy, ForkJoinPool formationPool) {
+        this(participants, teamSize, strategy, formationPool, 1, null);
+    }
+
+    public ParallelTeamFormationCallable(List<Participant> participants, int teamSize,
+                                         TeamFormationStrategy strategy, ForkJoinPool formationPool,
+                                         int starts, String replayCode) {
+        this(ParticipantTable.of(participants), teamSize, strategy, formationPool, starts, replayCode);
+    }
 
-    public ParallelTeamFormationCallable(List<Participant> participants, int teamSize, ExecutorService executor) {
+    public ParallelTeamFormationCallable(ParticipantTable participants, int teamSize,
+                                         TeamFormationStrategy strategy, ForkJoinPool formationPool,
+                                         int starts, String replayCode) {
         this.participants = participants;
         this.teamSize = teamSize;
-        this.executor = executor;
+        this.strategy = strategy;
+        this.formationPool = formationPool;
+        this.starts = starts;
+        this.replayCode = replayCode;
     }
 
     @Override
     public TeamBuilder call() {
         long startTime = System.currentTimeMillis();
-        Logger.info("Starting team formation with " + participants.size() + " participants");
+        LOG.info("Starting team formation with {} participants", participants.size());
 
         // Handles the actual team assignment logic
-        TeamBuilder builder = new TeamBuilder(participants, teamSize, executor);
-        builder.formTeams();
+        TeamBuilder builder;
+        if (replayCode != null) {
+            builder = new TeamBuilder(participants, teamSize, strategy, formationPool);
+            builder.replay(replayCode);
+        } else if (starts > 1) {
+            builder = new MultiStartFormation(participants, teamSize, strategy, formationPool)
+                    .run(starts, new Random().nextLong())
+                    .builder();
+        } else {
+            builder = new TeamBuilder(participants, teamSize, strategy, formationPool);
+            builder.formTeams();
+        }
 
         long totalTime = System.currentTimeMillis() - startTime;
-        Logger.info("Team formation completed in " + totalTime + "ms");
+        FORMATION_MILLIS.record(totalTime);
+        LOG.info("Team formation completed in {}ms", totalTime);
+        LOG.info(() -> "Scoring engine: " + ScoringEngine.shared().metrics());
         System.out.println(" TEAMS FORMED IN " + totalTime + "ms");
+        System.out.println(" Replay code: " + builder.getReplayCode());
 
         return builder; // Return the builder containing the formed teams
     }
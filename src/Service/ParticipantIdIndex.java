@@ -0,0 +1,213 @@
+package Service;
+
+import Utility.BloomFilter;
+import Utility.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Set of participant IDs stored in a CSV file, so duplicate checks never re-read the CSV.
+// Loaded once per file from a sidecar (<csv>.ids: a fixed-width header stamped with the CSV's size and
+// modification time, then one "+ID" line per added ID and one "-ID" line per removed ID, replayed in order)
+// and kept current by add(), remove() and reset(). If the stamp does not
+// match the CSV (edited by hand, or a crash between the two writes) the index is rebuilt from the CSV.
+// A Bloom filter in front of the hash set answers most "new ID" checks with a few bit probes.
+public class ParticipantIdIndex {
+
+    private static final String SIDECAR_SUFFIX = ".ids";
+    private static final String HEADER_FORMAT = "ids-v2 %019d %019d\n"; // CSV size, CSV mtime
+    private static final int HEADER_BYTES = String.format(HEADER_FORMAT, 0L, 0L).length();
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    // One index per CSV file, shared by every CSVHandler in the process
+    private static final Map<Path, ParticipantIdIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Path csvFile;
+    private final Path sidecarFile;
+    private final Set<String> ids = new HashSet<>();
+    private BloomFilter filter;
+    private int filterCapacity;
+
+    private ParticipantIdIndex(Path csvFile) {
+        this.csvFile = csvFile;
+        this.sidecarFile = Path.of(csvFile + SIDECAR_SUFFIX);
+    }
+
+    // Index for the given CSV, loaded on first use
+    public static ParticipantIdIndex forFile(String csvPath) throws IOException {
+        Path path = Path.of(csvPath).toAbsolutePath().normalize();
+        ParticipantIdIndex index = indexes.computeIfAbsent(path, ParticipantIdIndex::new);
+        index.loadIfNeeded();
+        return index;
+    }
+
+    public synchronized boolean contains(String id) {
+        return filter.mightContain(id) && ids.contains(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    // Records an ID that was just appended to the CSV
+    public void add(String id) throws IOException {
+        addAll(List.of(id));
+    }
+
+    // Records a batch of IDs just appended to the CSV: one sidecar write and one restamp
+    public synchronized void addAll(Collection<String> newIds) throws IOException {
+        List<String> added = new ArrayList<>(newIds.size());
+        for (String id : newIds) {
+            if (ids.add(id)) {
+                addToFilter(id);
+                added.add(id);
+            }
+        }
+
+        if (!added.isEmpty()) {
+            try (Writer writer = Files.newBufferedWriter(sidecarFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String id : added) {
+                    writer.write('+');
+                    writer.write(id);
+                    writer.write('\n');
+                }
+            }
+        }
+        stamp(); // the CSV changed even if every ID was already known
+    }
+
+    // Forgets an ID whose tombstone was just appended to the CSV. The Bloom filter keeps its bits;
+    // the hash set has the final say.
+    public synchronized void remove(String id) throws IOException {
+        if (ids.remove(id)) {
+            try (Writer writer = Files.newBufferedWriter(sidecarFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write('-');
+                writer.write(id);
+                writer.write('\n');
+            }
+        }
+        stamp();
+    }
+
+    // Replaces the whole index after the CSV was rewritten with exactly these IDs
+    public synchronized void reset(Collection<String> newIds) throws IOException {
+        ids.clear();
+        ids.addAll(newIds);
+        rebuildFilter();
+        writeSidecar();
+    }
+
+    // The CSV was replaced by a file with the same IDs (a compaction): restamp a loaded index for it.
+    // An index not loaded in this process is checked against the new file when it is loaded.
+    public static void fileReplaced(String csvPath) {
+        ParticipantIdIndex index = indexes.get(Path.of(csvPath).toAbsolutePath().normalize());
+        if (index == null) return;
+        synchronized (index) {
+            if (index.filter == null) return;
+            try {
+                index.stamp();
+            } catch (IOException e) {
+                Logger.warning("Could not restamp ID index for " + csvPath + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void loadIfNeeded() throws IOException {
+        if (filter != null) return;
+
+        long start = System.currentTimeMillis();
+        if (!loadSidecar()) {
+            rebuildFromCsv();
+            writeSidecar();
+        }
+        rebuildFilter();
+        Logger.info("ID index for " + csvFile.getFileName() + ": " + ids.size() + " IDs loaded in "
+                + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    // True if the sidecar exists and was stamped for the CSV as it is now
+    private boolean loadSidecar() throws IOException {
+        if (!Files.exists(sidecarFile)) return false;
+
+        try (BufferedReader reader = Files.newBufferedReader(sidecarFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !(header + "\n").equals(currentHeader())) return false;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                if (line.charAt(0) == '-') ids.remove(line.substring(1));
+                else ids.add(line.substring(1));
+            }
+            return true;
+        }
+    }
+
+    // Reads only the ID column of the CSV (first field, trimmed, header skipped); tombstones remove their ID
+    private void rebuildFromCsv() throws IOException {
+        ids.clear();
+        if (!Files.exists(csvFile)) return;
+
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            reader.readLine(); // skip header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                String deleted = ParticipantLog.tombstoneId(line);
+                if (deleted != null) {
+                    ids.remove(deleted);
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                ids.add((comma < 0 ? line : line.substring(0, comma)).trim());
+            }
+        }
+        Logger.info("ID index rebuilt from " + csvFile.getFileName());
+    }
+
+    // Writes the whole sidecar to a temporary file and moves it into place
+    private void writeSidecar() throws IOException {
+        Path temp = Path.of(sidecarFile + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(currentHeader());
+            for (String id : ids) {
+                writer.write('+');
+                writer.write(id);
+                writer.write('\n');
+            }
+        }
+        Files.move(temp, sidecarFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Rewrites the fixed-width header in place after an append
+    private void stamp() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(sidecarFile.toFile(), "rw")) {
+            file.seek(0);
+            file.write(currentHeader().getBytes(StandardCharsets.US_ASCII), 0, HEADER_BYTES);
+        }
+    }
+
+    private String currentHeader() throws IOException {
+        if (!Files.exists(csvFile)) return String.format(HEADER_FORMAT, 0L, 0L);
+        return String.format(HEADER_FORMAT, Files.size(csvFile), Files.getLastModifiedTime(csvFile).toMillis());
+    }
+
+    private void addToFilter(String id) {
+        if (ids.size() > filterCapacity) rebuildFilter(); // keep the false-positive rate as the set grows
+        else filter.add(id);
+    }
+
+    private void rebuildFilter() {
+        filterCapacity = Math.max(1024, ids.size() * 2);
+        filter = new BloomFilter(filterCapacity, FALSE_POSITIVE_RATE);
+        for (String id : ids) filter.add(id);
+    }
+}
@@ -0,0 +1,96 @@
+package Service;
+
+import Model.ParticipantTable;
+import Utility.IntList;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+// The participants file as a log. Removing a participant appends one line
+//
+//   #DELETED,<id>
+//
+// instead of rewriting the file, and editing one appends that tombstone followed by the new row. Every
+// reader folds the file into its live rows: a tombstone deletes the rows above it with the same ID
+// (compared case-insensitively, like the organizer's lookups); a row below a tombstone is live. Files
+// without tombstones fold for free. LogCompactor rewrites the file without the dead lines.
+public final class ParticipantLog {
+
+    public static final String TOMBSTONE = "#DELETED";
+    static final byte[] TOMBSTONE_PREFIX = (TOMBSTONE + ",").getBytes(StandardCharsets.US_ASCII);
+
+    private ParticipantLog() {
+
+    }
+
+    // A tombstone read from the file: the deleted ID and how many rows had been read before it
+    public record Tombstone(String id, int rowsBefore) {
+    }
+
+    public static String tombstoneRow(String id) {
+        return TOMBSTONE + "," + CSVHandler.escapeCSV(id);
+    }
+
+    // The ID a tombstone line deletes, or null if the line is not a tombstone
+    public static String tombstoneId(String line) {
+        if (!line.startsWith(TOMBSTONE + ",")) return null;
+        String id = line.substring(TOMBSTONE.length() + 1).trim();
+        if (id.length() >= 2 && id.startsWith("\"") && id.endsWith("\"")) {
+            id = id.substring(1, id.length() - 1).replace("\"\"", "\""); // undo escapeCSV
+        }
+        return id;
+    }
+
+    // Case-insensitive identity of a participant ID
+    public static String key(String id) {
+        return id.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Rows of the table deleted by the tombstones (given in file order)
+    public static BitSet deadRows(ParticipantTable table, List<Tombstone> tombstones) {
+        return deadRows(table.size(), table::id, tombstones);
+    }
+
+    public static BitSet deadRows(int rows, IntFunction<String> ids, List<Tombstone> tombstones) {
+        BitSet dead = new BitSet(rows);
+        if (tombstones.isEmpty()) return dead;
+
+        // Only rows above the last tombstone can be deleted, so only those are indexed
+        Map<String, IntList> live = new HashMap<>();
+        int row = 0;
+        for (Tombstone tombstone : tombstones) {
+            for (; row < Math.min(tombstone.rowsBefore(), rows); row++) {
+                live.computeIfAbsent(key(ids.apply(row)), k -> new IntList(1)).add(row);
+            }
+            IntList deleted = live.remove(key(tombstone.id()));
+            if (deleted == null) continue;
+            for (int i = 0; i < deleted.size(); i++) dead.set(deleted.get(i));
+        }
+        return dead;
+    }
+
+    // New row number of every row once the dead ones are dropped (-1 for dead rows)
+    public static int[] rowMap(int rows, BitSet dead) {
+        int[] map = new int[rows];
+        int next = 0;
+        for (int row = 0; row < rows; row++) map[row] = dead.get(row) ? -1 : next++;
+        return map;
+    }
+
+    // The live rows of the table, in order; the table itself when nothing is dead
+    public static ParticipantTable compact(ParticipantTable table, BitSet dead) {
+        if (dead.isEmpty()) return table;
+
+        ParticipantTable live = new ParticipantTable(table.size() - dead.cardinality());
+        for (int row = dead.nextClearBit(0); row < table.size(); row = dead.nextClearBit(row + 1)) {
+            live.add(table.id(row), table.name(row), table.email(row), table.game(row), table.skill(row),
+                    table.role(row), table.score(row), table.personality(row));
+        }
+        return live;
+    }
+}
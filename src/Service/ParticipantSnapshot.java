@@ -0,0 +1,247 @@
+package Service;
+
+import Model.Participant;
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Binary participant snapshot, loaded instead of re-parsing the CSV at startup.
+//
+// Layout (big-endian):
+//   header   magic "PSNP", int version, int row count, int game count, long string bytes,
+//            long source size, long source modified time (ms) (the CSV the rows were parsed from, or -1)
+//   games    per game: short length, UTF-8 bytes (the game dictionary)
+//   records  per row, fixed width: short id/name/email byte lengths, int game index, int skill,
+//            int personality score, byte role ordinal, byte personality ordinal
+//   strings  id, name and email of every row, UTF-8, back to back in row order
+//
+// Records carry no offsets: each row's strings start where the previous row's ended.
+// The source stamp is taken before the CSV is parsed, so a row appended while the parse or the write was
+// running leaves the snapshot stamped for an older CSV, and readIfCurrent refuses it.
+public final class ParticipantSnapshot {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8 + 8 + 8;
+    private static final int RECORD_BYTES = 2 + 2 + 2 + 4 + 4 + 4 + 1 + 1;
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+    private static final int BLOCK_BYTES = 8 << 20;
+
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final PersonalityType[] PERSONALITIES = PersonalityType.values();
+
+    private ParticipantSnapshot() {
+
+    }
+
+    // Size and modification time of the file a snapshot was parsed from; must match exactly to be current
+    public record Source(long size, long modifiedMillis) {
+
+        public static final Source NONE = new Source(-1, -1);
+
+        public static Source of(Path file) throws IOException {
+            if (!Files.exists(file)) return NONE;
+            return new Source(Files.size(file), Files.getLastModifiedTime(file).toMillis());
+        }
+    }
+
+    // Writes a snapshot not tied to any CSV
+    public static void write(ParticipantTable table, Path path) throws IOException {
+        write(table, path, Source.NONE);
+    }
+
+    // Writes the table to a temporary file and moves it into place, so readers never see half a snapshot
+    public static void write(ParticipantTable table, Path path, Source source) throws IOException {
+        int rows = table.size();
+
+        // Games used by the table, renumbered densely in order of first use
+        int[] gameIndex = new int[table.gameCount()];
+        Arrays.fill(gameIndex, -1);
+        List<String> games = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            int game = table.game(row);
+            if (gameIndex[game] < 0) {
+                gameIndex[game] = games.size();
+                games.add(table.gameName(game));
+            }
+        }
+
+        long stringBytes = 0;
+        for (int row = 0; row < rows; row++) {
+            stringBytes += utf8Length(table.id(row)) + utf8Length(table.name(row)) + utf8Length(table.email(row));
+        }
+
+        Path temp = Path.of(path + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+            out.writeInt(games.size());
+            out.writeLong(stringBytes);
+            out.writeLong(source.size());
+            out.writeLong(source.modifiedMillis());
+
+            for (String game : games) {
+                byte[] bytes = utf8(game);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            for (int row = 0; row < rows; row++) {
+                out.writeShort(utf8Length(table.id(row)));
+                out.writeShort(utf8Length(table.name(row)));
+                out.writeShort(utf8Length(table.email(row)));
+                out.writeInt(gameIndex[table.game(row)]);
+                out.writeInt(table.skill(row));
+                out.writeInt(table.score(row));
+                out.writeByte(table.roleOrdinal(row));
+                out.writeByte(table.personalityOrdinal(row));
+            }
+
+            for (int row = 0; row < rows; row++) {
+                out.write(utf8(table.id(row)));
+                out.write(utf8(table.name(row)));
+                out.write(utf8(table.email(row)));
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ParticipantTable read(Path path) throws IOException {
+        return read(path, null);
+    }
+
+    // The snapshot's rows if it was stamped for exactly this source, otherwise null
+    public static ParticipantTable readIfCurrent(Path path, Source source) throws IOException {
+        return read(path, source);
+    }
+
+    private static ParticipantTable read(Path path, Source expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            BlockReader in = new BlockReader(channel);
+
+            ByteBuffer header = in.take(HEADER_BYTES);
+            if (header.getInt() != MAGIC) throw new IOException("Not a participant snapshot: " + path);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + path);
+            int rows = header.getInt();
+            int gameCount = header.getInt();
+            long stringBytes = header.getLong();
+            if (rows < 0 || gameCount < 0 || stringBytes < 0) throw new IOException("Corrupt snapshot header: " + path);
+            Source source = new Source(header.getLong(), header.getLong());
+            if (expected != null && !source.equals(expected)) return null;
+
+            // Map the snapshot's games onto the shared dictionary
+            int[] gameIds = new int[gameCount];
+            for (int g = 0; g < gameCount; g++) {
+                int length = in.take(2).getShort() & 0xFFFF;
+                gameIds[g] = Participant.GAME_SYMBOLS.intern(in.string(length));
+            }
+
+            // Fixed-width records first, then the strings they describe
+            if ((long) rows * RECORD_BYTES > Integer.MAX_VALUE) throw new IOException("Snapshot too large: " + path);
+            ByteBuffer records = ByteBuffer.allocate(rows * RECORD_BYTES);
+            in.readFully(records);
+            records.flip();
+
+            ParticipantTable table = new ParticipantTable(rows);
+            for (int row = 0; row < rows; row++) {
+                int idLength = records.getShort() & 0xFFFF;
+                int nameLength = records.getShort() & 0xFFFF;
+                int emailLength = records.getShort() & 0xFFFF;
+                int game = records.getInt();
+                int skill = records.getInt();
+                int score = records.getInt();
+                int role = records.get();
+                int personality = records.get();
+                if (game < 0 || game >= gameCount || role < 0 || role >= ROLES.length
+                        || personality < 0 || personality >= PERSONALITIES.length) {
+                    throw new IOException("Corrupt snapshot record " + row + ": " + path);
+                }
+
+                table.add(in.string(idLength), in.string(nameLength), in.string(emailLength), gameIds[game],
+                        skill, ROLES[role], score, PERSONALITIES[personality]);
+            }
+            return table;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // UTF-8 size of a field without encoding it; fields must fit the records' 16-bit lengths
+    private static int utf8Length(String value) throws IOException {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length += 1;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) length += 1; // unpaired: the encoder writes '?'
+            else length += 3;
+        }
+        if (length > MAX_FIELD_BYTES) throw new IOException("Field too long for a snapshot: " + value.substring(0, 40) + "...");
+        return length;
+    }
+
+    // Sequential reader over the channel with a large reusable block, so strings decode straight from it
+    private static final class BlockReader {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES);
+
+        BlockReader(FileChannel channel) {
+            this.channel = channel;
+            block.limit(0);
+        }
+
+        // Next `length` bytes as a buffer positioned at them
+        ByteBuffer take(int length) throws IOException {
+            ensure(length);
+            ByteBuffer slice = block.slice();
+            slice.limit(length);
+            block.position(block.position() + length);
+            return slice;
+        }
+
+        String string(int length) throws IOException {
+            ensure(length);
+            String value = new String(block.array(), block.position(), length, StandardCharsets.UTF_8);
+            block.position(block.position() + length);
+            return value;
+        }
+
+        // Fills the target from whatever is buffered, then straight from the channel
+        void readFully(ByteBuffer target) throws IOException {
+            int buffered = Math.min(block.remaining(), target.remaining());
+            target.put(block.array(), block.position(), buffered);
+            block.position(block.position() + buffered);
+            while (target.hasRemaining()) {
+                if (channel.read(target) < 0) throw new EOFException("Snapshot ends early");
+            }
+        }
+
+        private void ensure(int length) throws IOException {
+            if (block.remaining() >= length) return;
+            block.compact();
+            while (block.position() < length) {
+                if (channel.read(block) < 0) throw new EOFException("Snapshot ends early");
+            }
+            block.flip();
+        }
+    }
+}
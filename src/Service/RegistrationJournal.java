@@ -0,0 +1,203 @@
+package Service;
+
+import Utility.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Append-only journal for registration rows with group commit. Callers enqueue a row and get a future;
+// one writer thread takes rows off the queue, waits up to the linger time for more (up to the batch
+// size), writes the whole batch with a single FileChannel write, forces it to disk, and only then
+// completes the futures. Rows never interleave, and a burst of sign-ups costs one write and one fsync
+// per batch instead of an open/write/close per row.
+public class RegistrationJournal implements AutoCloseable {
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final Path file;
+    private final int maxBatchRows;
+    private final long lingerNanos;
+    private final Consumer<List<String>> onCommit; // runs on the writer thread with each durable batch's keys
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Stats for tuning batch size and linger
+    private long batches;
+    private long rows;
+
+    public RegistrationJournal(Path file, int maxBatchRows, long lingerMillis, Consumer<List<String>> onCommit) {
+        if (maxBatchRows < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("Linger time cannot be negative");
+        }
+        this.file = file;
+        this.maxBatchRows = maxBatchRows;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.onCommit = onCommit;
+
+        this.writer = new Thread(this::run, "registration-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Queues one row (without line separator); the future completes once it is on disk.
+    // key travels with the row to the commit callback (e.g. the participant ID); rows without one
+    // (e.g. tombstones) are not reported to it.
+    public synchronized CompletableFuture<Void> append(String key, String row) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Registration journal is closed"));
+        }
+        Entry entry = new Entry(key, row, new CompletableFuture<>());
+        queue.add(entry);
+        return entry.done();
+    }
+
+    // Completes once every row queued before the call is on disk
+    public CompletableFuture<Void> flush() {
+        return append(null, null);
+    }
+
+    // Writes out whatever is queued and stops the writer thread
+    @Override
+    public void close() {
+        Entry last;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            last = new Entry(null, null, new CompletableFuture<>());
+            queue.add(last); // the writer exits once it has committed everything up to here
+        }
+        try {
+            last.done().join();
+            writer.join();
+        } catch (RuntimeException e) {
+            Logger.error("Registration journal closed with errors: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Logger.info("Registration journal closed: " + rows + " rows in " + batches + " batches");
+    }
+
+    private void run() {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            endWithNewline(channel);
+            List<Entry> batch = new ArrayList<>(maxBatchRows);
+            while (!closed || !queue.isEmpty()) {
+                batch.add(queue.take());
+                collect(batch);
+                commit(channel, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            Logger.error("Registration journal stopped on " + file + ": " + e.getMessage());
+        }
+
+        synchronized (this) {
+            closed = true; // no appends after this point, so nothing is left behind in the queue
+        }
+        failPending(new IOException("Registration journal is closed"));
+    }
+
+    // A file saved without a trailing newline would otherwise glue the first new row onto its last line
+    private void endWithNewline(FileChannel channel) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) { // append channels can't read
+            long size = reader.size();
+            if (size == 0) return;
+            reader.read(last, size - 1);
+        }
+        if (last.get(0) != '\n') {
+            channel.write(ByteBuffer.wrap(LINE_SEPARATOR));
+        }
+    }
+
+    // Tops the batch up to the batch size, waiting at most the linger time for stragglers
+    private void collect(List<Entry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchRows) {
+            if (queue.drainTo(batch, maxBatchRows - batch.size()) > 0) continue;
+            long wait = deadline - System.nanoTime();
+            if (wait <= 0) break;
+            Entry next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+    }
+
+    // One write and one force for the whole batch, then the callers are released
+    private void commit(FileChannel channel, List<Entry> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        try {
+            int count = 0;
+            for (Entry entry : batch) {
+                if (entry.row() != null) count++;
+            }
+            ByteBuffer buffer = encode(batch, keys);
+            if (buffer.hasRemaining()) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(false);
+                batches++;
+                rows += count;
+            }
+        } catch (IOException e) {
+            Logger.error("Registration journal write failed: " + e.getMessage());
+            for (Entry entry : batch) entry.done().completeExceptionally(e);
+            return;
+        }
+
+        // The rows are durable now; a failing callback must not fail the callers
+        if (onCommit != null && !keys.isEmpty()) {
+            try {
+                onCommit.accept(keys);
+            } catch (RuntimeException e) {
+                Logger.error("Registration journal commit callback failed: " + e.getMessage());
+            }
+        }
+        for (Entry entry : batch) entry.done().complete(null);
+    }
+
+    private ByteBuffer encode(List<Entry> batch, List<String> keys) {
+        List<byte[]> encoded = new ArrayList<>(batch.size());
+        int size = 0;
+        for (Entry entry : batch) {
+            if (entry.row() == null) continue; // flush marker
+            byte[] bytes = entry.row().getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += bytes.length + LINE_SEPARATOR.length;
+            if (entry.key() != null) keys.add(entry.key());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] bytes : encoded) {
+            buffer.put(bytes);
+            buffer.put(LINE_SEPARATOR);
+        }
+        return buffer.flip();
+    }
+
+    private void failPending(IOException cause) {
+        Entry entry;
+        while ((entry = queue.poll()) != null) entry.done().completeExceptionally(cause);
+    }
+
+    private record Entry(String key, String row, CompletableFuture<Void> done) {
+    }
+}
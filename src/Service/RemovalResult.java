@@ -0,0 +1,9 @@
+package Service;
+
+import Model.Participant;
+import Model.Team;
+
+// Outcome of TeamBuilder.removeParticipant: who left, the team they left, who took the free slot
+// (null if nobody fitted) and whether that team still satisfies every rule
+public record RemovalResult(Participant removed, Team team, Participant replacement, boolean compliant) {
+}
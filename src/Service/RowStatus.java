@@ -0,0 +1,25 @@
+package Service;
+
+// Outcome of parsing one CSV row; the rejections carry the same reason text as CSVHandler's exceptions
+public enum RowStatus {
+    ACCEPTED(null),
+    BLANK(null), // spacing / empty row, skipped without counting
+    TOMBSTONE(null), // deletes the rows above it with the same ID (see ParticipantLog)
+    WRONG_COLUMN_COUNT("Invalid CSV row (expected 8 columns)"),
+    INVALID_NUMBER("Invalid number format"),
+    INVALID_ENUM("Invalid enum value");
+
+    private final String reason;
+
+    RowStatus(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public boolean isRejected() {
+        return reason != null;
+    }
+}
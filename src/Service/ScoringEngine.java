@@ -0,0 +1,120 @@
+package Service;
+
+import Utility.MetricsRegistry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+// Evaluates an indexed range of candidates (e.g. the swaps SkillBalancer samples each round) with a
+// fork/join split on its own work-stealing pool. Small ranges run on the caller's thread. Nothing waits
+// on a timed future and nothing falls back: each index is evaluated exactly once on either path, and
+// the caller picks from the results in index order, so the outcome never depends on thread timing.
+public class ScoringEngine {
+
+    private static final int LEAF_SIZE = 256; // candidates one task evaluates before splitting further
+
+    private static volatile ScoringEngine shared;
+
+    private final ForkJoinPool pool;
+
+    // How often each path runs, for tuning LEAF_SIZE and spotting regressions
+    private final LongAdder sequentialRuns = new LongAdder();
+    private final LongAdder parallelRuns = new LongAdder();
+    private final LongAdder tasksForked = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+
+    public ScoringEngine(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("scoring-" + worker.getPoolIndex());
+            worker.setDaemon(true); // never keeps the application alive on exit
+            return worker;
+        }, null, false);
+    }
+
+    // Process-wide engine sized to the machine, created on first use; its counters are published as
+    // scoring.* gauges (sequential runs are the times the parallel path was not worth taking)
+    public static ScoringEngine shared() {
+        if (shared == null) {
+            synchronized (ScoringEngine.class) {
+                if (shared == null) {
+                    ScoringEngine engine = new ScoringEngine(Runtime.getRuntime().availableProcessors());
+                    MetricsRegistry.gauge("scoring.sequentialRuns", engine.sequentialRuns::sum);
+                    MetricsRegistry.gauge("scoring.parallelRuns", engine.parallelRuns::sum);
+                    MetricsRegistry.gauge("scoring.tasksForked", engine.tasksForked::sum);
+                    MetricsRegistry.gauge("scoring.evaluations", engine.evaluations::sum);
+                    shared = engine;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // Runs action for every index 0..count-1, split across the pool. Whatever the actions wrote (to
+    // distinct slots) is visible to the caller once this returns.
+    public void forEach(int count, IntConsumer action) {
+        if (count <= LEAF_SIZE || pool.getParallelism() == 1) {
+            sequentialRuns.increment();
+            run(0, count, action);
+        } else {
+            parallelRuns.increment();
+            pool.invoke(new EachTask(0, count, action));
+        }
+    }
+
+    // Stops the engine's worker threads once running work finishes; for engines a caller created itself
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public Metrics metrics() {
+        return new Metrics(sequentialRuns.sum(), parallelRuns.sum(), tasksForked.sum(), evaluations.sum());
+    }
+
+    private void run(int from, int to, IntConsumer action) {
+        for (int i = from; i < to; i++) action.accept(i);
+        evaluations.add(to - from);
+    }
+
+    // Tasks only live for one invoke() and are never serialized
+    private final class EachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final transient IntConsumer action;
+
+        EachTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                run(from, to, action);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            EachTask left = new EachTask(from, mid, action);
+            left.fork(); // idle workers steal this half
+            tasksForked.increment();
+            new EachTask(mid, to, action).compute();
+            left.join();
+        }
+    }
+
+    // Snapshot of the path counters
+    public record Metrics(long sequentialRuns, long parallelRuns, long tasksForked, long evaluations) {
+
+        @Override
+        public String toString() {
+            return "sequential=" + sequentialRuns + ", parallel=" + parallelRuns
+                    + ", forked=" + tasksForked + ", evaluated=" + evaluations;
+        }
+    }
+}
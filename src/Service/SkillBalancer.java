@@ -0,0 +1,238 @@
+package Service;
+
+import Model.Participant;
+import Model.Team;
+import Model.TeamComposition;
+import Utility.Histogram;
+import Utility.Logger;
+import Utility.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+// Simulated-annealing search over legal one-for-one swaps between any two teams, minimising the variance
+// of the teams' average skill within a wall-clock budget. Each round applies every improving sampled swap
+// that shares no team with a better one, and the teams end in the best state the walk reached.
+public class SkillBalancer {
+
+    private static final int MOVES_PER_ROUND = 1024;  // candidate swaps sampled (and priced in parallel) each round
+    private static final int STALL_ROUNDS = 2000;     // give up after this many rounds without a new best
+    private static final double START_TEMPERATURE = 0.05; // as a fraction of the starting variance
+    private static final double COOLING = 0.995;      // per round, so a run depends only on its seed and round count
+
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    private static final MetricsRegistry.Counter SWAP_ATTEMPTS = MetricsRegistry.counter("balance.swapAttempts");
+    private static final MetricsRegistry.Counter SWAPS_ACCEPTED = MetricsRegistry.counter("balance.swapsAccepted");
+    private static final Histogram BALANCE_MILLIS = MetricsRegistry.histogram("balance.millis");
+
+    // Rule check for one side of a swap: may `team` give away `out` and take `in`?
+    @FunctionalInterface
+    public interface SwapRule {
+        boolean allows(TeamComposition team, Participant out, Participant in);
+    }
+
+    private final long budgetMillis;
+    private final long maxRounds;
+    private final long seed;
+    private final ScoringEngine engine; // null evaluates moves on the calling thread
+
+    public SkillBalancer(long budgetMillis, long maxRounds, long seed, ScoringEngine engine) {
+        if (budgetMillis <= 0 && maxRounds <= 0) {
+            throw new IllegalArgumentException("Balancer needs a time budget or a round limit");
+        }
+        this.budgetMillis = budgetMillis;
+        this.maxRounds = maxRounds;
+        this.seed = seed;
+        this.engine = engine;
+    }
+
+    public BalanceReport balance(List<Team> teams, SwapRule rule) {
+        long start = System.currentTimeMillis();
+        double before = variance(teams);
+        if (teams.size() < 2 || before == 0) {
+            return new BalanceReport(before, before, 0, 0, 0);
+        }
+
+        double mean = meanAvgSkill(teams); // one-for-one swaps never change the total skill
+        SplittableRandom random = new SplittableRandom(seed);
+        boolean[] touched = new boolean[teams.size()];
+        List<Move> sinceBest = new ArrayList<>(); // applied after the best state seen, undone at the end
+
+        double current = before;
+        double best = before;
+        long rounds = 0;
+        long lastBest = 0;
+        int swaps = 0;
+
+        while (!outOfBudget(start, rounds) && rounds - lastBest < STALL_ROUNDS && current > 0) {
+            rounds++;
+
+            // Draw the moves up front from the seeded generator so a run replays identically
+            long[] moves = new long[MOVES_PER_ROUND];
+            for (int i = 0; i < MOVES_PER_ROUND; i++) moves[i] = random.nextLong();
+
+            List<Move> chosen = choose(teams, price(teams, moves, mean, rule), touched);
+            if (chosen.isEmpty()) continue;
+
+            // Several improving moves go in together; a lone uphill move has to pass the Metropolis test
+            Move first = chosen.get(0);
+            if (first.delta >= 0) {
+                double temperature = START_TEMPERATURE * before * Math.pow(COOLING, rounds);
+                boolean accept = temperature > 0 && random.nextDouble() < Math.exp(-first.delta / temperature);
+                if (!accept) continue;
+            }
+
+            for (Move move : chosen) {
+                apply(teams, move);
+                current += move.delta;
+            }
+            swaps += chosen.size();
+            sinceBest.addAll(chosen);
+            current = Math.max(0, current);
+            if (current < best) {
+                best = current;
+                lastBest = rounds;
+                sinceBest.clear();
+            }
+        }
+
+        // The walk may end above the best state it passed through; step back to it
+        if (!sinceBest.isEmpty()) LOG.debug("Skill balance: stepping back {} swaps to the best state", sinceBest.size());
+        for (int i = sinceBest.size() - 1; i >= 0; i--) undo(teams, sinceBest.get(i));
+        swaps -= sinceBest.size();
+
+        double after = variance(teams); // recomputed to shed floating-point drift
+        BalanceReport report = new BalanceReport(before, after, swaps, rounds, System.currentTimeMillis() - start);
+        SWAP_ATTEMPTS.add(rounds * MOVES_PER_ROUND); // every sampled move is priced
+        SWAPS_ACCEPTED.add(swaps);
+        BALANCE_MILLIS.record(report.elapsedMillis());
+        LOG.info(() -> String.format("Skill balance: variance %.4f -> %.4f (%.1f%% better) with %d swaps in %d rounds, %dms",
+                report.varianceBefore(), report.varianceAfter(), report.improvementPercent(),
+                report.swaps(), report.rounds(), report.elapsedMillis()));
+        return report;
+    }
+
+    // Prices every sampled move against the current teams (in parallel when a pool is available)
+    private Move[] price(List<Team> teams, long[] moves, double mean, SwapRule rule) {
+        Move[] priced = new Move[moves.length];
+        IntConsumer priceMove = i -> priced[i] = evaluate(teams, moves[i], mean, rule);
+        if (engine != null) {
+            engine.forEach(moves.length, priceMove);
+        } else {
+            for (int i = 0; i < moves.length; i++) priceMove.accept(i);
+        }
+        return priced;
+    }
+
+    // The improving moves that share no team, best first, since their deltas then simply add up.
+    // Without one, the single least-bad move. Ties keep the earlier sample, so the pick is deterministic.
+    private static List<Move> choose(List<Team> teams, Move[] priced, boolean[] touched) {
+        List<Move> improving = new ArrayList<>();
+        Move leastBad = null;
+        for (Move move : priced) {
+            if (move == null) continue;
+            if (move.delta < 0) improving.add(move);
+            else if (leastBad == null || move.delta < leastBad.delta) leastBad = move;
+        }
+        if (improving.isEmpty()) {
+            return leastBad == null ? List.of() : List.of(leastBad);
+        }
+
+        improving.sort(Comparator.comparingDouble(Move::delta)); // stable, so sample order breaks ties
+        List<Move> chosen = new ArrayList<>();
+        for (Move move : improving) {
+            if (touched[move.teamA] || touched[move.teamB]) continue;
+            touched[move.teamA] = true;
+            touched[move.teamB] = true;
+            chosen.add(move);
+        }
+        for (Move move : chosen) {
+            touched[move.teamA] = false;
+            touched[move.teamB] = false;
+        }
+        return chosen;
+    }
+
+    // Decodes one random long into (team A, member of A, team B, member of B) and prices the swap.
+    // Returns null for a no-op or a swap that would break a rule in either team.
+    private Move evaluate(List<Team> teams, long bits, double mean, SwapRule rule) {
+        SplittableRandom random = new SplittableRandom(bits);
+        int a = random.nextInt(teams.size());
+        int b = random.nextInt(teams.size() - 1);
+        if (b >= a) b++;
+
+        Team teamA = teams.get(a);
+        Team teamB = teams.get(b);
+        List<Participant> membersA = teamA.getParticipantList();
+        List<Participant> membersB = teamB.getParticipantList();
+        if (membersA.isEmpty() || membersB.isEmpty()) return null;
+
+        Participant fromA = membersA.get(random.nextInt(membersA.size()));
+        Participant fromB = membersB.get(random.nextInt(membersB.size()));
+        int diff = fromB.getSkillLevel() - fromA.getSkillLevel();
+        if (diff == 0) return null;
+
+        if (!rule.allows(teamA.getComposition(), fromA, fromB)) return null;
+        if (!rule.allows(teamB.getComposition(), fromB, fromA)) return null;
+
+        // Change in the sum of squared deviations of the two teams' averages from the overall mean
+        double devA = teamA.CalculateAvgSkill() - mean;
+        double devB = teamB.CalculateAvgSkill() - mean;
+        double shiftA = (double) diff / membersA.size();
+        double shiftB = (double) -diff / membersB.size();
+        double delta = 2 * shiftA * devA + shiftA * shiftA + 2 * shiftB * devB + shiftB * shiftB;
+
+        return new Move(a, fromA, b, fromB, delta / teams.size()); // as a change in variance
+    }
+
+    private void apply(List<Team> teams, Move move) {
+        Team teamA = teams.get(move.teamA);
+        Team teamB = teams.get(move.teamB);
+        teamA.removeMember(move.fromA);
+        teamB.removeMember(move.fromB);
+        teamA.addMember(move.fromB);
+        teamB.addMember(move.fromA);
+    }
+
+    private void undo(List<Team> teams, Move move) {
+        apply(teams, new Move(move.teamA, move.fromB, move.teamB, move.fromA, -move.delta));
+    }
+
+    private boolean outOfBudget(long start, long rounds) {
+        if (maxRounds > 0 && rounds >= maxRounds) return true;
+        return budgetMillis > 0 && System.currentTimeMillis() - start >= budgetMillis;
+    }
+
+    private static double meanAvgSkill(List<Team> teams) {
+        double total = 0;
+        for (Team team : teams) total += team.CalculateAvgSkill();
+        return total / teams.size();
+    }
+
+    // Population variance of the teams' average skill
+    public static double variance(List<Team> teams) {
+        if (teams.isEmpty()) return 0;
+        double mean = meanAvgSkill(teams);
+        double sum = 0;
+        for (Team team : teams) {
+            double dev = team.CalculateAvgSkill() - mean;
+            sum += dev * dev;
+        }
+        return sum / teams.size();
+    }
+
+    private record Move(int teamA, Participant fromA, int teamB, Participant fromB, double delta) {
+    }
+
+    // Outcome of one balancing run
+    public record BalanceReport(double varianceBefore, double varianceAfter, int swaps, long rounds, long elapsedMillis) {
+
+        public double improvementPercent() {
+            return varianceBefore == 0 ? 0 : (varianceBefore - varianceAfter) * 100 / varianceBefore;
+        }
+    }
+}
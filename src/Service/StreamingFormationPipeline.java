@@ -0,0 +1,346 @@
+package Service;
+
+import Model.ParticipantTable;
+import Utility.GzipFiles;
+import Utility.IntList;
+import Utility.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Reads, parses and forms teams as one staged pipeline instead of loading the whole CSV first:
+//
+//   reader thread --chunks--> parser threads --batches--> former (calling thread)
+//
+// The reader cuts the file into newline-aligned chunks, the parsers turn each chunk into a small
+// ParticipantTable (same validation, quarantine and tombstones as ParallelFileReadCallable), and the former appends
+// the batches in file order and runs the formation engine over a window of newly arrived rows plus the
+// rows earlier windows could not place, so formation overlaps the read. The teams are handed over as one
+// TeamBuilder after the final pass and skill balancing; the pipeline neither reads nor writes the CSV's
+// snapshot and its result has no replay code, which is why Main only uses it when asked to.
+// A semaphore caps the chunks between reader and former, so a slow former holds the reader back
+// instead of letting parsed batches pile up. After the last chunk one final pass takes whatever is left.
+public class StreamingFormationPipeline implements Callable<TeamBuilder> {
+
+    private static final int CHUNK_BYTES = 1 << 20;
+    // New rows per formation pass; leaders and roles are plentiful at this size, so windows lose little
+    private static final int DEFAULT_WINDOW_ROWS = 16384;
+
+    private static final Logger.Category LOG = Logger.category("formation");
+
+    private final String filePath;
+    private final int teamSize;
+    private final TeamFormationStrategy strategy;
+    private final ForkJoinPool formationPool;
+    private final int parsers;
+    private final int windowRows;
+
+    private volatile ParticipantTable participants;
+    private volatile ImportReport report;
+
+    public StreamingFormationPipeline(String filePath, int teamSize, TeamFormationStrategy strategy,
+                                      ForkJoinPool formationPool, int parsers) {
+        this(filePath, teamSize, strategy, formationPool, parsers, DEFAULT_WINDOW_ROWS);
+    }
+
+    public StreamingFormationPipeline(String filePath, int teamSize, TeamFormationStrategy strategy,
+                                      ForkJoinPool formationPool, int parsers, int windowRows) {
+        if (parsers < 1) {
+            throw new IllegalArgumentException("Need at least one parser thread");
+        }
+        if (windowRows < teamSize) {
+            throw new IllegalArgumentException("Formation window must hold at least one team");
+        }
+        this.filePath = filePath;
+        this.teamSize = teamSize;
+        this.strategy = strategy;
+        this.formationPool = formationPool;
+        this.parsers = parsers;
+        this.windowRows = windowRows;
+    }
+
+    @Override
+    public TeamBuilder call() throws Exception {
+        long startTime = System.currentTimeMillis();
+        LOG.info("StreamingFormationPipeline: streaming {} through {} parsers into {} formation",
+                filePath, parsers, strategy.name());
+
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(parsers * 2);
+        BlockingQueue<Batch> batches = new LinkedBlockingQueue<>(); // bounded by the semaphore
+        Semaphore inFlight = new Semaphore(parsers * 4);
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(start("pipeline-reader", () -> read(chunks, batches, inFlight)));
+        for (int i = 0; i < parsers; i++) {
+            threads.add(start("pipeline-parser-" + i, () -> parse(chunks, batches)));
+        }
+
+        try {
+            return form(batches, inFlight, startTime);
+        } finally {
+            for (Thread thread : threads) thread.interrupt(); // only still running after a failure
+        }
+    }
+
+    // Rows read by the last call(), in file order, or null before it finished
+    public ParticipantTable getParticipants() {
+        return participants;
+    }
+
+    public ImportReport getReport() {
+        return report;
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // ---- Stage 1: cut the file into newline-aligned chunks ----------------------------------------------
+
+    private void read(BlockingQueue<Chunk> chunks, BlockingQueue<Batch> batches, Semaphore inFlight) {
+        int sequence = 0;
+        try (InputStream in = GzipFiles.openInput(Path.of(filePath))) { // inflated on the fly for gzip input
+            byte[] carry = new byte[0];
+            int carryLength = 0;
+            boolean headerSkipped = false;
+            boolean eof = false;
+
+            while (!eof) {
+                byte[] buffer = new byte[Math.max(CHUNK_BYTES, carryLength * 2)]; // grows for a line longer than a chunk
+                System.arraycopy(carry, 0, buffer, 0, carryLength);
+                int filled = carryLength + in.readNBytes(buffer, carryLength, buffer.length - carryLength);
+                eof = filled < buffer.length;
+
+                int end = eof ? filled : lastLineEnd(buffer, filled);
+                int from = 0;
+                if (!headerSkipped) {
+                    int header = indexOf(buffer, (byte) '\n', 0, end);
+                    if (header >= 0) {
+                        from = header + 1;
+                        headerSkipped = true;
+                    } else {
+                        from = end; // header not complete yet (or a header-only file)
+                    }
+                }
+
+                if (from < end) {
+                    inFlight.acquire(); // backpressure: wait until the former has caught up
+                    chunks.put(new Chunk(sequence++, buffer, from, end));
+                }
+
+                carryLength = filled - end;
+                carry = Arrays.copyOfRange(buffer, end, filled);
+            }
+            batches.put(Batch.end(sequence));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            batches.add(Batch.failed(e));
+        } finally {
+            for (int i = 0; i < parsers; i++) chunks.offer(Chunk.POISON); // parsers stop; any it misses are interrupted by call()
+        }
+    }
+
+    // Position just after the last '\n' in the first `length` bytes, or 0 if there is none
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') return i + 1;
+        }
+        return 0;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) return i;
+        }
+        return -1;
+    }
+
+    // ---- Stage 2: parse chunks into small tables --------------------------------------------------------
+
+    private void parse(BlockingQueue<Chunk> chunks, BlockingQueue<Batch> batches) {
+        try {
+            while (true) {
+                Chunk chunk = chunks.take();
+                if (chunk == Chunk.POISON) return;
+
+                batches.put(new Batch(chunk.sequence(),
+                        ParallelFileReadCallable.parseChunk(chunk.bytes(), chunk.from(), chunk.to()), null));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            batches.add(Batch.failed(e));
+        }
+    }
+
+    // ---- Stage 3: form teams from the batches as they arrive --------------------------------------------
+
+    private TeamBuilder form(BlockingQueue<Batch> batches, Semaphore inFlight, long startTime) throws Exception {
+        Random random = new Random();
+        ParticipantTable table = new ParticipantTable();
+        List<ParallelFileReadCallable.Reject> rejects = new ArrayList<>();
+        List<ParticipantLog.Tombstone> tombstones = new ArrayList<>();
+        List<int[]> teams = new ArrayList<>();
+
+        IntList pending = new IntList(); // rows for the next pass: new arrivals plus recent leftovers
+        IntList reserve = new IntList(); // older leftovers, held back for the final pass
+        int arrived = 0;                 // rows added since the last pass
+        long firstTeamMillis = -1;
+
+        Map<Integer, Batch> early = new HashMap<>(); // batches that overtook an earlier one
+        int next = 0;
+        int endSequence = -1;
+        int line = 2; // line 1 is the header
+
+        while (endSequence < 0 || next < endSequence) {
+            Batch batch = batches.take();
+            if (batch.error() != null) {
+                throw new IOException("Streaming import of " + filePath + " failed: " + batch.error().getMessage(),
+                        batch.error());
+            }
+            if (batch.rows() == null) {
+                endSequence = batch.sequence();
+                continue;
+            }
+
+            early.put(batch.sequence(), batch);
+            while ((batch = early.remove(next)) != null) {
+                next++;
+                inFlight.release();
+
+                ParallelFileReadCallable.RangeResult rows = batch.rows();
+                int firstRow = table.size();
+                table.addAll(rows.table());
+                for (ParallelFileReadCallable.Reject reject : rows.rejects()) {
+                    rejects.add(new ParallelFileReadCallable.Reject(line + reject.line(), reject.status(), reject.text()));
+                }
+                for (ParticipantLog.Tombstone tombstone : rows.tombstones()) {
+                    tombstones.add(new ParticipantLog.Tombstone(tombstone.id(), firstRow + tombstone.rowsBefore()));
+                }
+                line += rows.lines();
+                for (int row = firstRow; row < table.size(); row++) pending.add(row);
+                arrived += table.size() - firstRow;
+
+                if (arrived >= windowRows) {
+                    FormationResult result = formWindow(table, pending, random);
+                    teams.addAll(result.teams());
+
+                    // At most a window of leftovers rides along into the next pass; the rest wait for the
+                    // final one. Leftovers pile up when leaders run short, and re-reading all of them on
+                    // every pass would make the total work quadratic.
+                    int[] leftover = result.leftover();
+                    int carried = Math.min(leftover.length, windowRows);
+                    pending = new IntList(carried + windowRows);
+                    for (int i = 0; i < leftover.length; i++) {
+                        if (i < carried) pending.add(leftover[i]);
+                        else reserve.add(leftover[i]);
+                    }
+                    arrived = 0;
+
+                    if (firstTeamMillis < 0 && !teams.isEmpty()) {
+                        firstTeamMillis = System.currentTimeMillis() - startTime;
+                        LOG.info("First teams ready after {}ms", firstTeamMillis);
+                    }
+                }
+            }
+        }
+
+        long readMillis = System.currentTimeMillis() - startTime; // the whole file has been parsed
+
+        // Final pass over everything still unplaced
+        pending.addAll(reserve.toArray());
+        boolean finalPass = arrived > 0 || !reserve.isEmpty();
+
+        // Tombstones can delete rows that earlier windows already placed: those teams are broken up
+        // and their remaining members join the final pass
+        BitSet dead = ParticipantLog.deadRows(table, tombstones);
+        if (!dead.isEmpty()) {
+            pending = withoutDead(pending.toArray(), dead);
+            for (Iterator<int[]> it = teams.iterator(); it.hasNext(); ) {
+                int[] members = it.next();
+                IntList live = withoutDead(members, dead);
+                if (live.size() == members.length) continue;
+                it.remove();
+                pending.addAll(live.toArray());
+            }
+            finalPass = true;
+        }
+
+        int[] leftover = pending.toArray();
+        if (finalPass) {
+            FormationResult result = formWindow(table, pending, random);
+            teams.addAll(result.teams());
+            leftover = result.leftover();
+        }
+
+        // Renumber the rows once the deleted ones are dropped from the table
+        if (!dead.isEmpty()) {
+            int[] rowMap = ParticipantLog.rowMap(table.size(), dead);
+            table = ParticipantLog.compact(table, dead);
+            for (int[] members : teams) renumber(members, rowMap);
+            renumber(leftover, rowMap);
+        }
+
+        report = ParallelFileReadCallable.quarantine(filePath, rejects, table.size());
+        ParallelFileReadCallable.recordIngest(table.size(), rejects.size(), readMillis);
+        participants = table;
+
+        TeamBuilder builder = new TeamBuilder(table, teamSize, strategy, formationPool);
+        builder.formTeamsFrom(new FormationResult(teams, leftover), random.nextLong());
+
+        long totalTime = System.currentTimeMillis() - startTime;
+        ParallelTeamFormationCallable.FORMATION_MILLIS.record(totalTime);
+        LOG.info("Streaming formation completed in {}ms ({} participants, {} compliant teams, first after {}ms)",
+                totalTime, table.size(), teams.size(), firstTeamMillis);
+        System.out.println(" TEAMS FORMED IN " + totalTime + "ms (streamed, so no replay code)");
+        return builder;
+    }
+
+    private static IntList withoutDead(int[] rows, BitSet dead) {
+        IntList live = new IntList(rows.length);
+        for (int row : rows) {
+            if (!dead.get(row)) live.add(row);
+        }
+        return live;
+    }
+
+    private static void renumber(int[] rows, int[] rowMap) {
+        for (int i = 0; i < rows.length; i++) rows[i] = rowMap[rows[i]];
+    }
+
+    // One formation pass over the pending rows, shuffled like TeamBuilder does to avoid predictable grouping
+    private FormationResult formWindow(ParticipantTable table, IntList pending, Random random) {
+        int[] rows = pending.toArray();
+        for (int i = rows.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rows[i];
+            rows[i] = rows[j];
+            rows[j] = swap;
+        }
+        return strategy.formTeams(table, rows, teamSize);
+    }
+
+    // A newline-aligned run of lines: bytes[from, to)
+    private record Chunk(int sequence, byte[] bytes, int from, int to) {
+        static final Chunk POISON = new Chunk(-1, new byte[0], 0, 0);
+    }
+
+    // Parsed rows of one chunk; no rows mark the end (sequence = chunk count), an error a failed stage
+    private record Batch(int sequence, ParallelFileReadCallable.RangeResult rows, Exception error) {
+
+        static Batch end(int chunks) {
+            return new Batch(chunks, null, null);
+        }
+
+        static Batch failed(Exception error) {
+            return new Batch(-1, null, error);
+        }
+    }
+}
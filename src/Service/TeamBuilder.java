@@ -4,12 +4,15 @@ import Model.*;
 import Utility.Logger;
 
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class TeamBuilder {
 
-    // Full list of participants provided from outside
-    private final List<Participant> allParticipants;
+    private static final Logger.Category LOG = Logger.category("formation");
+    private static final String BANNER = "=".repeat(60);
+
+    // All participants provided from outside, stored column-wise; formation works on its row numbers
+    private final ParticipantTable table;
 
     // Teams that fully satisfy rules
     private final List<Team> balancedTeams = new ArrayList<>();
@@ -19,371 +22,259 @@ public class TeamBuilder {
 
     private final int targetTeamSize; // Requested team size
     private int nextTeamId = 1;       // Auto incremental team ID
-    private final ExecutorService executor;
 
-    // RULE LIMITS (the constraints the algorithm must respect)
-    private static final int MAX_SAME_GAME = 2;
-    private static final int MAX_LEADERS = 1;
-    private static final int MAX_THINKERS = 2;
-    private static final int MAX_SOCIALIZERS = 1;
-    private static final int MIN_DIFFERENT_ROLES = 3;
+    // Engine that picks the compliant teams, and the pool used for parallel phases (null = sequential)
+    private final TeamFormationStrategy strategy;
+    private final ForkJoinPool formationPool;
+
+    // Settings for the skill-balancing phase
+    private static final long DEFAULT_BALANCE_BUDGET_MS = 250;
+    private long balanceBudgetMillis = DEFAULT_BALANCE_BUDGET_MS;
+    private long balanceRounds = 0; // > 0 runs the balancer for exactly this many rounds instead of the time budget
+    private SkillBalancer.BalanceReport lastBalanceReport;
+
+    // Teams with open slots, for placing participants who register after formation
+    private final OpenSlotDirectory openTeams;
+    private final OpenSlotDirectory openOverflowTeams;
+
+    // Team of every member by ParticipantLog.key(id); built on the first lookup, then kept current
+    private Map<String, Team> teamsByMember;
 
-    // Settings for when to parallelize the selection process
-    private static final int PARALLEL_THRESHOLD = 150;
-    private static final int MIN_CHUNK_SIZE = 25;
+    // Seed behind the current teams; together with the balancer's round count it replays them exactly
+    private long lastSeed;
+    private boolean replayable; // false for teams adopted through formTeamsFrom
 
     // Main constructor
     public TeamBuilder(List<Participant> participants, int teamSize) {
-        this(participants, teamSize, null);
+        this(participants, teamSize, (ForkJoinPool) null);
     }
 
-    // Overloaded constructor with optional executor for parallel processing
-    public TeamBuilder(List<Participant> participants, int teamSize, ExecutorService executor) {
-        if (participants == null || participants.isEmpty()) {
+    // Overloaded constructor with optional fork-join pool for sharded greedy formation
+    public TeamBuilder(List<Participant> participants, int teamSize, ForkJoinPool formationPool) {
+        this(participants, teamSize, new GreedyFormationStrategy(formationPool), formationPool);
+    }
+
+    // Overloaded constructor choosing the formation engine
+    public TeamBuilder(List<Participant> participants, int teamSize, TeamFormationStrategy strategy, ForkJoinPool formationPool) {
+        this(toTable(participants), teamSize, strategy, formationPool);
+    }
+
+    // Overloaded constructor for participants already loaded into a table (e.g. straight from the CSV)
+    public TeamBuilder(ParticipantTable table, int teamSize, TeamFormationStrategy strategy, ForkJoinPool formationPool) {
+        if (table == null || table.isEmpty()) {
             throw new IllegalArgumentException("No participants given!");
         }
         if (teamSize < 2 || teamSize > 10) {
             throw new IllegalArgumentException("Team size must be 2–10");
         }
-        this.allParticipants = new ArrayList<>(participants); // Copy for safety
+        if (strategy == null) {
+            throw new IllegalArgumentException("No formation strategy given!");
+        }
+        this.table = table;
         this.targetTeamSize = teamSize;
-        this.executor = executor;
+        this.openTeams = new OpenSlotDirectory(teamSize);
+        this.openOverflowTeams = new OpenSlotDirectory(teamSize);
+        this.strategy = strategy;
+        this.formationPool = formationPool;
     }
 
-    // Main function to form all teams
+    // Main function to form all teams, from a fresh random seed
     public List<Team> formTeams() {
+        return formTeams(new Random().nextLong());
+    }
+
+    // Forms all teams from a fixed seed. The result is reproducible when the balancer is round-limited
+    // (see replay); with a time budget only the skill-balancing phase can differ between runs.
+    public List<Team> formTeams(long seed) {
         balancedTeams.clear();
         overflowTeams.clear();
         nextTeamId = 1;
+        lastSeed = seed;
 
-        List<Participant> remaining = new ArrayList<>(allParticipants);
-
-        // Push leaders to the front so each team has a chance to get one
-        putLeadersFirst(remaining);
+        Random random = new Random(seed);
+        int[] remaining = new int[table.size()];
+        for (int row = 0; row < remaining.length; row++) remaining[row] = row;
 
         // Shuffle to avoid predictable grouping
-        Collections.shuffle(remaining);
-
-        Logger.info("=".repeat(60));
-        Logger.info("TEAM FORMATION START: " + remaining.size() + " participants");
-        Logger.info("Mode: " + (allParticipants.size() >= 150 ? "PARALLEL ENABLED" : "SEQUENTIAL ONLY"));
-        Logger.info("=".repeat(60));
-
-        // Keep forming full teams while possible
-        while (remaining.size() >= targetTeamSize) {
-            Team team = tryMakeCompliantTeam(remaining);
-            if (team != null && team.getParticipantList().size() == targetTeamSize) {
-                balancedTeams.add(team);
-                remaining.removeAll(team.getParticipantList());
-            } else {
-                break; // If we fail once, remaining can't form a balanced team
-            }
-        }
+        shuffle(remaining, random);
+
+        LOG.info(BANNER);
+        LOG.info("TEAM FORMATION START: {} participants", remaining.length);
+        LOG.info("Engine: {} | Seed: {}", strategy.name(), seed);
+        LOG.info(BANNER);
+
+        FormationResult result = strategy.formTeams(table, remaining, targetTeamSize);
+        replayable = true;
+        return buildTeams(result, random);
+    }
+
+    // Takes over a formation already done on this builder's table (e.g. streamed while the CSV was still
+    // being read), then builds overflow teams, balances skills and indexes open slots exactly like formTeams.
+    // The formation itself is not reproducible from a seed, so getReplayCode() returns null afterwards.
+    public List<Team> formTeamsFrom(FormationResult result, long seed) {
+        balancedTeams.clear();
+        overflowTeams.clear();
+        nextTeamId = 1;
+        lastSeed = seed;
+        replayable = false;
+
+        LOG.info(BANNER);
+        LOG.info("TEAM FORMATION FINISH: {} teams formed upstream, {} participants left over",
+                result.teams().size(), result.leftover().length);
+        LOG.info("Seed: {}", seed);
+        LOG.info(BANNER);
+
+        return buildTeams(result, new Random(seed));
+    }
+
+    // Numbers the compliant teams, turns the leftovers into overflow teams and balances skills
+    private List<Team> buildTeams(FormationResult result, Random random) {
+        for (int[] members : result.teams()) addBalancedTeam(members);
 
         // Anything left over becomes overflow teams
-        if (!remaining.isEmpty()) {
-            makeOverflowTeams(remaining);
+        if (result.leftover().length > 0) {
+            makeOverflowTeams(result.leftover().clone(), random);
         }
 
         // Skill-balance teams by swapping players
-        balanceSkills(balancedTeams);
+        balanceSkills(balancedTeams, random.nextLong());
+
+        // Index the teams that can still take late registrations
+        teamsByMember = null;
+        openTeams.clear();
+        openOverflowTeams.clear();
+        for (Team team : balancedTeams) openTeams.update(team);
+        for (Team team : overflowTeams) openOverflowTeams.update(team);
 
         // Summary
-        Logger.info("=".repeat(60));
-        Logger.info("TEAM FORMATION COMPLETE");
-        Logger.info("Teams formed: " + getAllTeams().size());
-        Logger.info("=".repeat(60));
+        LOG.info(BANNER);
+        LOG.info("TEAM FORMATION COMPLETE");
+        LOG.info(() -> "Teams formed: " + getAllTeams().size());
+        LOG.info(BANNER);
 
         return getAllTeams();
     }
 
-    // Moves all leaders to top of list to ensure leader-first team formation
-    private void putLeadersFirst(List<Participant> list) {
-        list.sort((a, b) -> {
-            if (a.getPersonalityType() == PersonalityType.LEADER) return -1;
-            if (b.getPersonalityType() == PersonalityType.LEADER) return 1;
-            return 0;
-        });
-    }
-
-    // Attempts to build a rule-compliant single team
-    private Team tryMakeCompliantTeam(List<Participant> pool) {
-        List<Participant> available = new ArrayList<>(pool);
+    private void addBalancedTeam(int[] members) {
         Team team = new Team(nextTeamId++);
-        List<Participant> chosen = new ArrayList<>();
-
-        // Rule: team must have exactly one leader
-        Participant leader = null;
-        for (Participant participant : available) {
-            if (participant.getPersonalityType() == PersonalityType.LEADER) {
-                leader = participant;
-                break;
-            }
+        for (int row : members) {
+            team.addMember(table.participant(row));
         }
-        if (leader == null) return null; // Can't form a legal team
-
-        chosen.add(leader);
-        available.remove(leader);
-
-        // Add remaining best players using scoring logic
-        while (chosen.size() < targetTeamSize && !available.isEmpty()) {
-            Participant best = findBestPlayer(chosen, available);
-            if (best == null) break; // No valid candidate found
-            chosen.add(best);
-            available.remove(best);
-        }
-
-        // Final validation
-        if (chosen.size() == targetTeamSize && hasEnoughRoles(chosen)) {
-            for (Participant participant : chosen) {
-                team.addMember(participant);
-            }
-            return team;
-        }
-        return null;
+        balancedTeams.add(team);
     }
 
-    // Decides whether the "best player" search should run parallel or sequential
-    private Participant findBestPlayer(List<Participant> team, List<Participant> candidates) {
-        boolean shouldUseParallel = executor != null && candidates.size() >= PARALLEL_THRESHOLD;
-
-        // For debugging/logging: only for first few teams
-        if (shouldUseParallel) {
-            if (balancedTeams.size() < 3) {
-                int numThreads = Math.min(Runtime.getRuntime().availableProcessors(),
-                        candidates.size() / MIN_CHUNK_SIZE);
-                int chunkSize = (int) Math.ceil((double) candidates.size() / numThreads);
-                Logger.info(String.format("Team %d: %d candidates → %d threads (~%d per chunk)",
-                        nextTeamId - 1, candidates.size(), numThreads, chunkSize));
+    // Builds overflow teams from leftovers without applying strict rules
+    private void makeOverflowTeams(int[] leftover, Random random) {
+        shuffle(leftover, random);
+        for (int start = 0; start < leftover.length; start += targetTeamSize) {
+            Team team = new Team(nextTeamId++);
+            int end = Math.min(start + targetTeamSize, leftover.length);
+            for (int i = start; i < end; i++) {
+                team.addMember(table.participant(leftover[i]));
             }
-            return findBestPlayerParallel(team, candidates);
-        } else {
-            return findBestPlayerSequential(team, candidates);
+            overflowTeams.add(team);
         }
     }
 
-    // Standard sequential scanning for best-fit candidate
-    private Participant findBestPlayerSequential(List<Participant> team, List<Participant> candidates) {
-        Participant best = null;
-        double bestScore = -1;
-
-        for (Participant candidate : candidates) {
-            if (breaksRules(team, candidate)) continue;
-            double score = calculateScore(team, candidate);
-            if (score > bestScore) {
-                bestScore = score;
-                best = candidate;
-            }
+    // Fisher–Yates shuffle of row numbers
+    private static void shuffle(int[] rows, Random random) {
+        for (int i = rows.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rows[i];
+            rows[i] = rows[j];
+            rows[j] = swap;
         }
-        return best;
     }
 
-    // Parallel version for large groups of candidates
-    private Participant findBestPlayerParallel(List<Participant> team, List<Participant> candidates) {
-        try {
-            int availableCores = Runtime.getRuntime().availableProcessors();
-            int maxThreads = candidates.size() / MIN_CHUNK_SIZE;
-            int numThreads = Math.min(availableCores, maxThreads);
-
-            if (numThreads <= 1) {
-                return findBestPlayerSequential(team, candidates);
-            }
-
-            int chunkSize = (int) Math.ceil((double) candidates.size() / numThreads);
-            List<Future<ParticipantScore>> futures = new ArrayList<>();
-
-            // Split work into chunks
-            for (int i = 0; i < numThreads; i++) {
-                int start = i * chunkSize;
-                int end = Math.min((i + 1) * chunkSize, candidates.size());
-                List<Participant> chunk = new ArrayList<>(candidates.subList(start, end));
-
-                futures.add(executor.submit(() -> findBestInChunk(team, chunk)));
-            }
-
-            // Collect results from all threads
-            Participant best = null;
-            double bestScore = -1;
-
-            for (Future<ParticipantScore> future : futures) {
-                ParticipantScore result = future.get(5, TimeUnit.SECONDS);
-                if (result != null && result.score > bestScore) {
-                    bestScore = result.score;
-                    best = result.participant;
-                }
-            }
-
-            return best;
-
-        } catch (TimeoutException e) {
-            Logger.error("Parallel timeout - falling back to sequential");
-            return findBestPlayerSequential(team, candidates);
-        } catch (Exception e) {
-            Logger.error("Parallel error: " + e.getMessage());
-            return findBestPlayerSequential(team, candidates);
+    private static ParticipantTable toTable(List<Participant> participants) {
+        if (participants == null || participants.isEmpty()) {
+            throw new IllegalArgumentException("No participants given!");
         }
+        return ParticipantTable.of(participants);
     }
 
-    // Used by parallel threads to compute the best candidate inside a chunk
-    private ParticipantScore findBestInChunk(List<Participant> team, List<Participant> chunk) {
-        Participant best = null;
-        double bestScore = -1;
-
-        for (Participant candidate : chunk) {
-            if (breaksRules(team, candidate)) continue;
-
-            double score = calculateScore(team, candidate);
-            if (score > bestScore) {
-                bestScore = score;
-                best = candidate;
-            }
-        }
+    // Evens out average skill across the compliant teams with legal swaps between any pair of teams
+    private void balanceSkills(List<Team> teams, long seed) {
+        ScoringEngine engine = formationPool == null ? null : ScoringEngine.shared();
+        SkillBalancer balancer = balanceRounds > 0
+                ? new SkillBalancer(0, balanceRounds, seed, engine)
+                : new SkillBalancer(balanceBudgetMillis, 0, seed, engine);
+        lastBalanceReport = balancer.balance(teams, TeamRules::keepsRulesAfterSwap);
+    }
 
-        return new ParticipantScore(best, bestScore);
+    // "engine:teamSize:seed:rounds" code that reproduces the current teams through replay(), or null before
+    // formTeams() (and after formTeamsFrom)
+    public String getReplayCode() {
+        if (lastBalanceReport == null || !replayable) return null;
+        return new ReplayCode(strategy.key(), targetTeamSize, lastSeed, lastBalanceReport.rounds()).toString();
     }
 
-    // Checks if adding this candidate would break any team constraint
-    private boolean breaksRules(List<Participant> team, Participant candidate) {
+    // Re-forms exactly the teams described by a code from getReplayCode()
+    public List<Team> replay(String replayCode) {
+        return replay(ReplayCode.parse(replayCode));
+    }
 
-        // Check same-game limit (max 2)
-        int sameGame = 0;
-        for (Participant member : team) {
-            if (member.getPreferredGame().equals(candidate.getPreferredGame())) sameGame++;
+    public List<Team> replay(ReplayCode code) {
+        if (!code.engine().equals(strategy.key()) || code.teamSize() != targetTeamSize) {
+            throw new IllegalArgumentException("Replay code " + code + " needs the " + code.engine()
+                    + " engine and teams of " + code.teamSize() + ", not " + strategy.key() + " and " + targetTeamSize);
         }
-        if (sameGame >= MAX_SAME_GAME) return true;
-
-        // Check personality type distribution
-        int leaders = 0, thinkers = 0, socializers = 0;
-        for (Participant member : team) {
-            if (member.getPersonalityType() == PersonalityType.LEADER) leaders++;
-            if (member.getPersonalityType() == PersonalityType.THINKER) thinkers++;
-            if (member.getPersonalityType() == PersonalityType.SOCIALIZER) socializers++;
+        try {
+            balanceRounds = Math.max(code.rounds(), 1); // 0 means the balancer had nothing to do, which a replay finds again
+            return formTeams(code.seed());
+        } finally {
+            balanceRounds = 0;
         }
-
-        if (candidate.getPersonalityType() == PersonalityType.LEADER && leaders >= MAX_LEADERS) return true;
-        if (candidate.getPersonalityType() == PersonalityType.THINKER && thinkers >= MAX_THINKERS) return true;
-        return candidate.getPersonalityType() == PersonalityType.SOCIALIZER && socializers >= MAX_SOCIALIZERS;
     }
 
-    // Scoring system to determine how well a candidate fits the current team
-    private double calculateScore(List<Participant> team, Participant candidate) {
-        double score = 0;
+    // Everything a formation depends on besides the participants: the engine, the team size, the seed and
+    // the balancer's round count
+    public record ReplayCode(String engine, int teamSize, long seed, long rounds) {
 
-        // Bonus for introducing a new role
-        boolean hasRole = false;
-        for (Participant member : team) {
-            if (member.getPreferredRole() == candidate.getPreferredRole()) {
-                hasRole = true;
-                break;
+        private static final String FORMAT = "Replay code must look like <engine>:<team size>:<seed>:<rounds>";
+
+        public static ReplayCode parse(String code) {
+            String[] parts = code.trim().split(":");
+            if (parts.length != 4 || parts[0].isEmpty()) {
+                throw new IllegalArgumentException(FORMAT);
+            }
+            try {
+                ReplayCode parsed = new ReplayCode(parts[0], Integer.parseInt(parts[1]),
+                        Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+                if (parsed.teamSize < 2 || parsed.teamSize > 10 || parsed.rounds < 0) {
+                    throw new IllegalArgumentException(FORMAT);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(FORMAT);
             }
         }
-        if (!hasRole) score += 25;
-
-        // Skill balancing — prefer players close to team's avg skill
-        double totalSkill = 0;
-        for (Participant member : team) totalSkill += member.getSkillLevel();
-        double avgSkill = team.isEmpty() ? 5 : totalSkill / team.size();
-        score += 15 - Math.abs(candidate.getSkillLevel() - avgSkill);
-
-        // Thinkers bonus if team has less than 2
-        int thinkers = 0;
-        for (Participant member : team) {
-            if (member.getPersonalityType() == PersonalityType.THINKER) thinkers++;
-        }
-        if (candidate.getPersonalityType() == PersonalityType.THINKER && thinkers < 2) score += 10;
-
-        return score;
-    }
 
-    // Basic rule: team must have at least N different role types
-    private boolean hasEnoughRoles(List<Participant> team) {
-        Set<RoleType> roles = new HashSet<>();
-        for (Participant participant : team) {
-            roles.add(participant.getPreferredRole());
+        @Override
+        public String toString() {
+            return engine + ":" + teamSize + ":" + seed + ":" + rounds;
         }
-        return roles.size() >= MIN_DIFFERENT_ROLES;
     }
 
-    // Builds overflow teams from leftovers without applying strict rules
-    private void makeOverflowTeams(List<Participant> leftover) {
-        Collections.shuffle(leftover);
-        while (!leftover.isEmpty()) {
-            Team team = new Team(nextTeamId++);
-            int take = Math.min(targetTeamSize, leftover.size());
-            for (int i = 0; i < take; i++) {
-                team.addMember(leftover.removeFirst());
-            }
-            overflowTeams.add(team);
+    // Wall-clock time the skill balancer may spend after formation
+    public void setBalanceBudgetMillis(long balanceBudgetMillis) {
+        if (balanceBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Balance budget must be positive");
         }
+        this.balanceBudgetMillis = balanceBudgetMillis;
     }
 
-    // Attempts to swap players between strongest/weakest teams to smooth skill differences
-    private void balanceSkills(List<Team> teams) {
-        if (teams.size() < 2) return;
-
-        // Up to 50 improvement iterations
-        for (int i = 0; i < 50; i++) {
-            teams.sort(Comparator.comparingDouble(Team::CalculateAvgSkill));
-            Team weakestTeam = teams.getFirst();
-            Team strongestTeam = teams.getLast();
-
-            // Stop when skill difference becomes small
-            if (strongestTeam.CalculateAvgSkill() - weakestTeam.CalculateAvgSkill() < 1.2) break;
-
-            if (trySwapPlayers(strongestTeam, weakestTeam)) continue;
-            break; // No viable swap found
-        }
+    // Variance improvement achieved by the last formTeams() call, or null before the first one
+    public SkillBalancer.BalanceReport getLastBalanceReport() {
+        return lastBalanceReport;
     }
 
-    // Try swapping one member between teamA and teamB
-    private boolean trySwapPlayers(Team teamA, Team teamB) {
-        List<Participant> listA = new ArrayList<>(teamA.getParticipantList());
-        List<Participant> listB = new ArrayList<>(teamB.getParticipantList());
-
-        for (Participant playerA : listA) {
-            for (Participant playerB : listB) {
-                // Perform swap
-                teamA.removeMember(playerA);
-                teamA.addMember(playerB);
-                teamB.removeMember(playerB);
-                teamB.addMember(playerA);
-
-                // Check rule compliance after swap
-                if (!hasRuleProblem(teamA.getParticipantList()) && !hasRuleProblem(teamB.getParticipantList())) {
-                    return true; // Swap accepted
-                }
-
-                // Undo invalid swap
-                teamA.removeMember(playerB);
-                teamA.addMember(playerA);
-                teamB.removeMember(playerA);
-                teamB.addMember(playerB);
-            }
-        }
-        return false;
+    public long getLastSeed() {
+        return lastSeed;
     }
 
-    // Checks rule violations inside a team
-    private boolean hasRuleProblem(List<Participant> team) {
-
-        // Same game rule
-        Map<String, Integer> games = new HashMap<>();
-        for (Participant participant : team) {
-            String game = participant.getPreferredGame();
-            games.put(game, games.getOrDefault(game, 0) + 1);
-            if (games.get(game) > MAX_SAME_GAME) return true;
-        }
-
-        // Personality rules
-        int leaders = 0, thinkers = 0, socializers = 0;
-        for (Participant participant : team) {
-            if (participant.getPersonalityType() == PersonalityType.LEADER) leaders++;
-            if (participant.getPersonalityType() == PersonalityType.THINKER) thinkers++;
-            if (participant.getPersonalityType() == PersonalityType.SOCIALIZER) socializers++;
-        }
-        if (leaders > MAX_LEADERS || thinkers > MAX_THINKERS || socializers > MAX_SOCIALIZERS) return true;
-
-        return false;
+    public int getOverflowTeamCount() {
+        return overflowTeams.size();
     }
 
     // Returns all teams in one list (balanced + overflow)
@@ -444,13 +335,14 @@ public class TeamBuilder {
         List<Participant> members = team.getParticipantList();
         if (members.size() != targetTeamSize) violations.add("Wrong size (" + members.size() + "/" + targetTeamSize + ")");
 
-        Map<String, Integer> games = new HashMap<>();
+        // Counted by game id; names are only decoded for the message
+        Set<Integer> reportedGames = new HashSet<>();
         for (Participant participant : members) {
-            String game = participant.getPreferredGame();
-            games.put(game, games.getOrDefault(game, 0) + 1);
-        }
-        for (String game : games.keySet()) {
-            if (games.get(game) > MAX_SAME_GAME) violations.add("Too many " + game + " Players: " + games.get(game));
+            int game = participant.getGameId();
+            int count = team.getComposition().countGame(game);
+            if (count > TeamRules.MAX_SAME_GAME && reportedGames.add(game)) {
+                violations.add("Too many " + Participant.GAME_SYMBOLS.name(game) + " Players: " + count);
+            }
         }
 
         int leaders = 0, thinkers = 0, socializers = 0;
@@ -466,7 +358,7 @@ public class TeamBuilder {
 
         Set<RoleType> roles = new HashSet<>();
         for (Participant participant : members) roles.add(participant.getPreferredRole());
-        if (roles.size() < MIN_DIFFERENT_ROLES) violations.add("Only " + roles.size() + " roles");
+        if (roles.size() < TeamRules.MIN_DIFFERENT_ROLES) violations.add("Only " + roles.size() + " roles");
 
         if (!violations.isEmpty()) {
             System.out.print(" Violation: ");
@@ -493,20 +385,106 @@ public class TeamBuilder {
         System.out.println("=".repeat(50) + "\n");
     }
 
-    // Finds an existing suitable team for a newly added participant
-    public Team findSuitableTeam(Participant participant) {
-        for (Team team : balancedTeams) {
-            if (team.getParticipantList().size() < targetTeamSize && !breaksRules(team.getParticipantList(), participant)) {
-                return team;
+    // Places a newly registered participant and returns their team: the best-fitting compliant team with
+    // room, else the best rule-respecting partial overflow team, else the fullest partial overflow team.
+    // Only when every team is full is a new overflow team started.
+    public Team placeParticipant(Participant participant) {
+        Team team = openTeams.findBest(participant);
+        if (team != null) {
+            team.addMember(participant);
+            openTeams.update(team);
+            indexMember(participant, team);
+            return team;
+        }
+
+        team = openOverflowTeams.findBest(participant);
+        if (team == null) team = openOverflowTeams.findFullest();
+        if (team == null) {
+            team = new Team(nextTeamId++);
+            overflowTeams.add(team);
+        }
+        team.addMember(participant);
+        openOverflowTeams.update(team);
+        indexMember(participant, team);
+        return team;
+    }
+
+    // Team holding the participant with this ID (case-insensitive), or null
+    public Team findTeam(String id) {
+        return memberIndex().get(ParticipantLog.key(id));
+    }
+
+    // Takes a participant out of their team and repairs only that team; every other team stays as it is.
+    // A compliant team takes the overflow member closest in skill to the one who left among those who keep
+    // it within the rules. If nobody fits it is moved to the overflow teams. Returns null for an unknown ID.
+    public RemovalResult removeParticipant(String id) {
+        Team team = findTeam(id);
+        if (team == null) return null;
+        Participant removed = team.containsParticipant(id);
+        teamsByMember.remove(ParticipantLog.key(id));
+
+        if (!balancedTeams.contains(team)) {
+            leaveOverflowTeam(team, removed);
+            return new RemovalResult(removed, team, null, false);
+        }
+
+        // Checked against the full team: would it keep every rule with the candidate in the leaver's place?
+        Participant replacement = null;
+        Team donor = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Team overflow : overflowTeams) {
+            for (Participant candidate : overflow.getParticipantList()) {
+                int distance = Math.abs(candidate.getSkillLevel() - removed.getSkillLevel());
+                if (distance >= bestDistance
+                        || !TeamRules.keepsRulesAfterSwap(team.getComposition(), removed, candidate)) continue;
+                replacement = candidate;
+                donor = overflow;
+                bestDistance = distance;
             }
+            if (bestDistance == 0) break;
+        }
+
+        team.removeMember(removed);
+        if (replacement == null) {
+            // Nobody fits: the team no longer meets the rules and is listed with the overflow teams
+            balancedTeams.remove(team);
+            overflowTeams.add(team);
+            openTeams.remove(team);
+            openOverflowTeams.update(team);
+            return new RemovalResult(removed, team, null, false);
         }
-        // If no suitable team, place in a new overflow team
-        Team newTeam = new Team(nextTeamId++);
-        overflowTeams.add(newTeam);
-        return newTeam;
+
+        leaveOverflowTeam(donor, replacement);
+        team.addMember(replacement);
+        openTeams.update(team);
+        indexMember(replacement, team);
+        return new RemovalResult(removed, team, replacement, true);
+    }
+
+    private void leaveOverflowTeam(Team team, Participant participant) {
+        team.removeMember(participant);
+        if (team.getParticipantList().isEmpty()) {
+            overflowTeams.remove(team);
+            openOverflowTeams.remove(team);
+        } else {
+            openOverflowTeams.update(team);
+        }
+    }
+
+    private Map<String, Team> memberIndex() {
+        if (teamsByMember == null) {
+            teamsByMember = new HashMap<>();
+            for (Team team : balancedTeams) indexMembers(team);
+            for (Team team : overflowTeams) indexMembers(team);
+        }
+        return teamsByMember;
+    }
+
+    private void indexMembers(Team team) {
+        for (Participant participant : team.getParticipantList()) indexMember(participant, team);
     }
 
-    // Record for storing scoring results
-    private record ParticipantScore(Participant participant, double score) {
+    private void indexMember(Participant participant, Team team) {
+        if (teamsByMember != null) teamsByMember.put(ParticipantLog.key(participant.getId()), team);
     }
 }
@@ -0,0 +1,295 @@
+package Service;
+
+import Model.Participant;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.Team;
+import Utility.GzipFiles;
+import Utility.Histogram;
+import Utility.MetricsRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Writes formed teams in the toCSV layout. Teams are cut into sections that worker threads render
+// straight into reusable byte buffers (numbers as digits, strings char by char, enum and game names
+// from pre-encoded bytes), while the calling thread writes finished sections in team order with
+// positional FileChannel writes. Only a bounded window of sections is in flight, so memory stays flat
+// however many teams there are, and the disk rather than formatting sets the pace.
+// For a ".gz" path each worker also compresses its section into block gzip members, which concatenate
+// into one valid gzip file, so compression runs in parallel as well.
+public class TeamExporter {
+
+    private static final int TEAMS_PER_SECTION = 512;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RULE = ascii("# ==============================\n");
+    private static final byte[] TEAM_PREFIX = ascii("# TEAM ");
+    private static final byte[] SIZE_PREFIX = ascii(" (Size: ");
+    private static final byte[] AVG_PREFIX = ascii(", Avg Skill: ");
+    private static final byte[] HEADER_END = ascii(")\n");
+    private static final byte[] COLUMNS =
+            ascii("TeamID,ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType\n");
+    private static final byte[][] ROLE_NAMES = names(RoleType.values());
+    private static final byte[][] PERSONALITY_NAMES = names(PersonalityType.values());
+
+    private static final MetricsRegistry.Counter BYTES_WRITTEN = MetricsRegistry.counter("export.bytes");
+    private static final Histogram EXPORT_MILLIS = MetricsRegistry.histogram("export.millis");
+
+    private final ExecutorService executor;
+    private final int window; // sections rendered ahead of the writer
+
+    public TeamExporter(ExecutorService executor, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.executor = executor;
+        this.window = threads * 2;
+    }
+
+    // Replaces the file's contents with the teams; returns the number of bytes written
+    public long export(Path path, List<Team> teams) throws IOException {
+        long start = System.currentTimeMillis();
+        boolean compress = GzipFiles.isCompressedName(path.toString());
+        byte[][] games = gameNames();
+        Deque<Section> free = new ArrayDeque<>();
+        Deque<Future<Section>> rendering = new ArrayDeque<>();
+        long position = 0;
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int from = 0; from < teams.size(); from += TEAMS_PER_SECTION) {
+                if (rendering.size() == window) {
+                    Section done = await(rendering.poll());
+                    position += done.writeTo(channel, position);
+                    free.add(done);
+                }
+
+                Section section = free.isEmpty() ? new Section() : free.poll();
+                List<Team> slice = teams.subList(from, Math.min(from + TEAMS_PER_SECTION, teams.size()));
+                rendering.add(executor.submit(() -> section.render(slice, games, compress)));
+            }
+
+            while (!rendering.isEmpty()) {
+                position += await(rendering.poll()).writeTo(channel, position);
+            }
+            if (compress) position += write(channel, ByteBuffer.wrap(GzipFiles.eofBlock()), position);
+        } finally {
+            for (Future<Section> pending : rendering) pending.cancel(true); // only left over after a failure
+        }
+        BYTES_WRITTEN.add(position);
+        EXPORT_MILLIS.record(System.currentTimeMillis() - start);
+        return position;
+    }
+
+    private static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static Section await(Future<Section> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Rendering teams failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        }
+    }
+
+    // Every game known when the export starts, as its CSV field, encoded once and shared read-only by the
+    // workers; games registered later are encoded where they occur
+    private static byte[][] gameNames() {
+        int count = Participant.GAME_SYMBOLS.size();
+        byte[][] names = new byte[count][];
+        Section scratch = new Section();
+        for (int id = 0; id < count; id++) {
+            scratch.length = 0;
+            scratch.field(Participant.GAME_SYMBOLS.name(id));
+            names[id] = Arrays.copyOf(scratch.bytes, scratch.length);
+        }
+        return names;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) names[value.ordinal()] = ascii(value.name());
+        return names;
+    }
+
+    // Growable byte buffer holding one rendered run of teams; kept and reused across sections
+    private static final class Section {
+        private byte[] bytes = new byte[1 << 16];
+        private int length;
+        private final Compressed compressed = new Compressed();
+        private boolean isCompressed;
+
+        Section render(List<Team> teams, byte[][] games, boolean compress) {
+            length = 0;
+            for (Team team : teams) {
+                int teamId = team.getTeam_id();
+                List<Participant> members = team.getParticipantList();
+
+                put(LINE_SEPARATOR); // spacing before each team block
+                put(RULE);
+                put(TEAM_PREFIX);
+                number(teamId);
+                put(SIZE_PREFIX);
+                number(members.size());
+                put(AVG_PREFIX);
+                hundredths(team.getComposition().getSkillSum(), team.getComposition().getSize());
+                put(HEADER_END);
+                put(RULE);
+                put(COLUMNS);
+
+                for (Participant p : members) {
+                    number(teamId);
+                    comma();
+                    field(p.getId());
+                    comma();
+                    field(p.getName());
+                    comma();
+                    field(p.getEmail());
+                    comma();
+                    int game = p.getGameId();
+                    if (game < games.length) put(games[game]);
+                    else field(Participant.GAME_SYMBOLS.name(game)); // game first registered after the export began
+                    comma();
+                    number(p.getSkillLevel());
+                    comma();
+                    put(ROLE_NAMES[p.getPreferredRole().ordinal()]);
+                    comma();
+                    number(p.getPersonalityScore());
+                    comma();
+                    put(PERSONALITY_NAMES[p.getPersonalityType().ordinal()]);
+                    put(LINE_SEPARATOR);
+                }
+            }
+
+            isCompressed = compress;
+            if (compress) {
+                compressed.reset();
+                GzipFiles.compressBlocks(bytes, 0, length, compressed);
+            }
+            return this;
+        }
+
+        long writeTo(FileChannel channel, long position) throws IOException {
+            return write(channel, isCompressed ? compressed.view() : ByteBuffer.wrap(bytes, 0, length), position);
+        }
+
+        private void put(byte[] source) {
+            ensure(source.length);
+            System.arraycopy(source, 0, bytes, length, source.length);
+            length += source.length;
+        }
+
+        private void comma() {
+            ensure(1);
+            bytes[length++] = ',';
+        }
+
+        private void number(long value) {
+            ensure(20);
+            if (value < 0) {
+                bytes[length++] = '-';
+                value = -value; // team ids, skills and scores are far from Long.MIN_VALUE
+            }
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) digits++;
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+
+        // sum / count to two decimals, rounded half up like String.format("%.2f"); 0.00 for an empty team
+        private void hundredths(int sum, int count) {
+            long scaled = count == 0 ? 0 : (Math.abs((long) sum) * 200 + count) / (2L * count);
+            if (sum < 0 && scaled > 0) {
+                ensure(1);
+                bytes[length++] = '-';
+            }
+            number(scaled / 100);
+            ensure(3);
+            bytes[length++] = '.';
+            bytes[length++] = (byte) ('0' + scaled / 10 % 10);
+            bytes[length++] = (byte) ('0' + scaled % 10);
+        }
+
+        // A CSV field as UTF-8, quoted like CSVHandler.escapeCSV when it holds a comma, quote or line break
+        private void field(String value) {
+            if (value == null) return;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+
+            ensure(value.length() * 6 + 2); // worst case: every char a doubled quote or 3-byte sequence
+            if (quote) bytes[length++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"') bytes[length++] = '"';
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | c >> 6);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | cp >> 18);
+                    bytes[length++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    bytes[length++] = '?'; // unpaired surrogate, as the UTF-8 encoder writes it
+                } else {
+                    bytes[length++] = (byte) (0xE0 | c >> 12);
+                    bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            if (quote) bytes[length++] = '"';
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+
+    // Compressed section bytes, written straight from the stream's own array
+    private static final class Compressed extends ByteArrayOutputStream {
+        Compressed() {
+            super(1 << 16);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
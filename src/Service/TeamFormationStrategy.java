@@ -0,0 +1,30 @@
+package Service;
+
+import Model.ParticipantTable;
+
+import java.util.concurrent.ForkJoinPool;
+
+// A team formation engine: splits a participant pool into rule-compliant teams.
+// Engines work on row numbers of a ParticipantTable; TeamBuilder turns the result into numbered teams,
+// builds overflow teams from the leftovers and balances skills.
+public interface TeamFormationStrategy {
+
+    // Short label used in logs and menus
+    String name();
+
+    // Stable id recorded in replay codes
+    String key();
+
+    // Forms as many compliant teams of exactly teamSize as the engine can from the given rows;
+    // every other row goes to leftover
+    FormationResult formTeams(ParticipantTable table, int[] rows, int teamSize);
+
+    // The engine behind a key() from a replay code
+    static TeamFormationStrategy forKey(String key, ForkJoinPool formationPool) {
+        return switch (key) {
+            case "greedy" -> new GreedyFormationStrategy(formationPool);
+            case "flow" -> new FlowFormationStrategy(formationPool);
+            default -> throw new IllegalArgumentException("Unknown formation engine: " + key);
+        };
+    }
+}
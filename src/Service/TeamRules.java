@@ -0,0 +1,106 @@
+package Service;
+
+import Model.Participant;
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.TeamComposition;
+
+// Team composition rules shared by every formation engine, the skill balancer and live registration.
+// All checks read a TeamComposition, so none of them rescans the team.
+public final class TeamRules {
+
+    // RULE LIMITS (the constraints the algorithm must respect)
+    public static final int MAX_SAME_GAME = 2;
+    public static final int MAX_LEADERS = 1;
+    public static final int MAX_THINKERS = 2;
+    public static final int MAX_SOCIALIZERS = 1;
+    public static final int MIN_DIFFERENT_ROLES = 3;
+
+    private TeamRules() {
+
+    }
+
+    // Checks if adding this candidate would break any team constraint
+    public static boolean breaksRules(TeamComposition team, Participant candidate) {
+
+        // Check same-game limit (max 2)
+        if (team.countGame(candidate.getGameId()) >= MAX_SAME_GAME) return true;
+
+        // Check personality type distribution
+        return personalityFull(team, candidate.getPersonalityType());
+    }
+
+    // True once the team holds the maximum allowed members of this personality type
+    public static boolean personalityFull(TeamComposition team, PersonalityType type) {
+        if (type == PersonalityType.LEADER) return team.countPersonality(type) >= MAX_LEADERS;
+        if (type == PersonalityType.THINKER) return team.countPersonality(type) >= MAX_THINKERS;
+        return type == PersonalityType.SOCIALIZER && team.countPersonality(type) >= MAX_SOCIALIZERS;
+    }
+
+    // Scoring system to determine how well a candidate fits the current team
+    public static double calculateScore(TeamComposition team, Participant candidate) {
+        return calculateScore(team, candidate.getPreferredRole(), candidate.getSkillLevel(), candidate.getPersonalityType());
+    }
+
+    // Same score for a table row, read straight from the columns
+    public static double calculateScore(TeamComposition team, ParticipantTable table, int row) {
+        return calculateScore(team, table.role(row), table.skill(row), table.personality(row));
+    }
+
+    private static double calculateScore(TeamComposition team, RoleType role, int skill, PersonalityType type) {
+        double score = 0;
+
+        // Bonus for introducing a new role
+        if (!team.hasRole(role)) score += 25;
+
+        // Skill balancing — prefer players close to team's avg skill
+        double avgSkill = team.getSize() == 0 ? 5 : team.avgSkill();
+        score += 15 - Math.abs(skill - avgSkill);
+
+        // Thinkers bonus if team has less than 2
+        if (type == PersonalityType.THINKER
+                && team.countPersonality(PersonalityType.THINKER) < 2) score += 10;
+
+        return score;
+    }
+
+    // Basic rule: team must have at least N different role types
+    public static boolean hasEnoughRoles(TeamComposition team) {
+        return team.distinctRoles() >= MIN_DIFFERENT_ROLES;
+    }
+
+    // Full check of a finished team of the given size
+    public static boolean isCompliant(TeamComposition team, int teamSize) {
+        return team.getSize() == teamSize
+                && team.countPersonality(PersonalityType.LEADER) == MAX_LEADERS
+                && team.countPersonality(PersonalityType.THINKER) <= MAX_THINKERS
+                && team.countPersonality(PersonalityType.SOCIALIZER) <= MAX_SOCIALIZERS
+                && team.maxGameCount() <= MAX_SAME_GAME
+                && hasEnoughRoles(team);
+    }
+
+    // Would the team still satisfy every rule after giving away `out` and taking `in`? Checked on the counts only
+    public static boolean keepsRulesAfterSwap(TeamComposition team, Participant out, Participant in) {
+
+        // Same game rule
+        int sameGame = team.countGame(in.getGameId());
+        if (out.getGameId() == in.getGameId()) sameGame--;
+        if (sameGame >= MAX_SAME_GAME) return false;
+
+        // Personality rules (a compliant team must also keep its one leader)
+        PersonalityType type = in.getPersonalityType();
+        if (type != out.getPersonalityType()) {
+            if (out.getPersonalityType() == PersonalityType.LEADER) return false;
+            if (personalityFull(team, type)) return false;
+        }
+
+        // Role spread
+        int roles = team.distinctRoles();
+        if (in.getPreferredRole() != out.getPreferredRole()) {
+            if (team.countRole(out.getPreferredRole()) == 1) roles--;
+            if (!team.hasRole(in.getPreferredRole())) roles++;
+        }
+        return roles >= MIN_DIFFERENT_ROLES;
+    }
+}
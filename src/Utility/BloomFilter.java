@@ -0,0 +1,54 @@
+package Utility;
+
+import java.nio.charset.StandardCharsets;
+
+// Fixed-size Bloom filter over strings: "definitely absent" answers cost a few bit probes and never
+// touch the backing set. Bit positions come from double hashing of a 64-bit FNV-1a hash.
+public class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashes;
+
+    // Sized for the expected number of items at the given false-positive rate
+    public BloomFilter(int expectedItems, double falsePositiveRate) {
+        if (expectedItems < 1) expectedItems = 1;
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long size = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.max(64, Math.min(size, Integer.MAX_VALUE - 63));
+        this.bits = new long[(bitCount + 63) / 64];
+        this.hashes = (int) Math.max(1, Math.round((double) bitCount / expectedItems * ln2));
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // False means the value was never added; true means it probably was
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -3,6 +3,7 @@ package Utility;
 
 import Exception.InvalidSurveyDataException;
 import Model.Participant;
+import Model.ParticipantTable;
 import Model.Team;
 import Exception.InvalidCSVFilePathException;
 import java.io.IOException;
@@ -11,6 +12,7 @@ import java.util.List;
 public interface CSVService {
     boolean containsID(String id) throws InvalidSurveyDataException, IOException;
     List<Participant> readCSV(String path) throws IOException, InvalidSurveyDataException;
+    ParticipantTable readTable(String path) throws IOException, InvalidSurveyDataException;
     void toCSV(String path, List<Team> teams) throws IOException, InvalidCSVFilePathException;
     void exportUnassignedUser(String path, List<Participant> participants) throws IOException;
     void addToCSV(Participant p) throws IOException;
@@ -0,0 +1,267 @@
+package Utility;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+// Transparent gzip for participant and team files, using only java.util.zip.
+//
+// Input is detected by the gzip magic bytes, whatever the file is called. Output is compressed when the
+// path ends in ".gz", in block gzip: a series of independent gzip members of at most 64 KB input each,
+// whose headers carry the member's compressed size in a "BC" extra field (the BGZF layout used by bgzip).
+// Any gzip tool reads such a file as one stream, but our readers can find every member from the headers
+// alone and inflate them on several threads. Plain single-stream gzip is read sequentially.
+public class GzipFiles {
+
+    public static final String SUFFIX = ".gz";
+
+    private static final int MAX_BLOCK_INPUT = 0xFF00; // leaves room for deflate overhead within a 64 KB member
+    private static final int HEADER_BYTES = 18;        // fixed part of a block header, including the BC field
+    private static final int TRAILER_BYTES = 8;        // CRC32 + input size
+    private static final byte[] EOF_BLOCK = {           // empty block that marks a complete block gzip file
+            0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0,
+            3, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private GzipFiles() {
+
+    }
+
+    public static boolean isCompressedName(String path) {
+        return path.endsWith(SUFFIX);
+    }
+
+    // True if the file starts with the gzip magic bytes
+    public static boolean isGzip(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return in.read() == 0x1f && in.read() == 0x8b;
+        }
+    }
+
+    // The file's contents, decompressed if it is gzip (any number of members)
+    public static InputStream openInput(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        in.mark(2);
+        boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+        in.reset();
+        return gzip ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+
+    // Stream that writes block gzip when the path ends in ".gz", plain bytes otherwise
+    public static OutputStream openOutput(Path path) throws IOException {
+        OutputStream out = Files.newOutputStream(path);
+        return isCompressedName(path.toString()) ? new BlockOutputStream(out) : out;
+    }
+
+    // File offsets of every member of a block gzip file (plus the file size at the end), read from the
+    // headers without inflating anything; null if any member lacks the BC field (plain gzip)
+    public static long[] blockOffsets(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            LongList offsets = new LongList();
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+
+            long at = 0;
+            while (at < size) {
+                header.clear();
+                if (readAt(channel, header, at) < 12) return null;
+                int xlen = header.getShort(10) & 0xFFFF;
+                if ((header.get(0) & 0xFF) != 0x1f || (header.get(1) & 0xFF) != 0x8b || (header.get(3) & 4) == 0) {
+                    return null;
+                }
+
+                ByteBuffer extra = ByteBuffer.allocate(xlen).order(ByteOrder.LITTLE_ENDIAN);
+                if (readAt(channel, extra, at + 12) < xlen) return null;
+                int blockSize = blockSize(extra);
+                if (blockSize < 0) return null;
+
+                offsets.add(at);
+                at += blockSize;
+            }
+            offsets.add(size);
+            return offsets.toArray();
+        }
+    }
+
+    // Inflates the members in file[from, to) (which must start and end on member boundaries)
+    public static byte[] inflateBlocks(FileChannel channel, long from, long to) throws IOException {
+        if (to - from > Integer.MAX_VALUE) throw new IOException("Block range too large");
+        ByteBuffer compressed = ByteBuffer.allocate((int) (to - from)).order(ByteOrder.LITTLE_ENDIAN);
+        readAt(channel, compressed, from);
+        byte[] input = compressed.array();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        try {
+            int at = 0;
+            while (at < input.length) {
+                int xlen = compressed.getShort(at + 10) & 0xFFFF;
+                int blockSize = blockSize(compressed.slice(at + 12, xlen).order(ByteOrder.LITTLE_ENDIAN));
+                int dataStart = at + 12 + xlen;
+                int dataEnd = at + blockSize - TRAILER_BYTES;
+                int expectedCrc = compressed.getInt(dataEnd);
+                int inputSize = compressed.getInt(dataEnd + 4);
+
+                byte[] block = new byte[inputSize];
+                inflater.reset();
+                inflater.setInput(input, dataStart, dataEnd - dataStart);
+                int inflated = 0;
+                while (inflated < inputSize) {
+                    int n = inflater.inflate(block, inflated, inputSize - inflated);
+                    if (n == 0) break; // finished, or the block is short
+                    inflated += n;
+                }
+                crc.reset();
+                crc.update(block, 0, inflated);
+                if (inflated != inputSize || (int) crc.getValue() != expectedCrc) {
+                    throw new IOException("Corrupt gzip block at offset " + (from + at));
+                }
+
+                out.write(block, 0, inflated);
+                at += blockSize;
+            }
+        } catch (DataFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt gzip block in bytes " + from + " to " + to + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    // Appends bytes[from, to) to out as complete gzip members; independent of any other call
+    public static void compressBlocks(byte[] bytes, int from, int to, ByteArrayOutputStream out) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        try {
+            for (int at = from; at < to; at += MAX_BLOCK_INPUT) {
+                int length = Math.min(MAX_BLOCK_INPUT, to - at);
+                deflater.reset();
+                deflater.setInput(bytes, at, length);
+                deflater.finish();
+                int compressed = 0;
+                while (!deflater.finished()) {
+                    compressed += deflater.deflate(buffer, compressed, buffer.length - compressed);
+                }
+                crc.reset();
+                crc.update(bytes, at, length);
+
+                int blockSize = HEADER_BYTES + compressed + TRAILER_BYTES;
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.put((byte) 0x1f).put((byte) 0x8b).put((byte) 8).put((byte) 4) // deflate, FEXTRA
+                        .putInt(0).put((byte) 0).put((byte) 0xff)                    // no mtime, unknown OS
+                        .putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2)
+                        .putShort((short) (blockSize - 1));
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt((int) crc.getValue()).putInt(length);
+
+                out.write(header.array(), 0, HEADER_BYTES);
+                out.write(buffer, 0, compressed);
+                out.write(trailer.array(), 0, TRAILER_BYTES);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Marker block that ends a block gzip file
+    public static byte[] eofBlock() {
+        return EOF_BLOCK.clone();
+    }
+
+    // Total member size from the BC subfield, or -1 if there is none
+    private static int blockSize(ByteBuffer extra) {
+        int at = 0;
+        while (at + 4 <= extra.limit()) {
+            int length = extra.getShort(at + 2) & 0xFFFF;
+            if (extra.get(at) == 'B' && extra.get(at + 1) == 'C' && length == 2 && at + 6 <= extra.limit()) {
+                return (extra.getShort(at + 4) & 0xFFFF) + 1;
+            }
+            at += 4 + length;
+        }
+        return -1;
+    }
+
+    private static int readAt(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + total);
+            if (read < 0) break;
+            total += read;
+        }
+        return total;
+    }
+
+    // Buffers writes and emits them as block gzip members, ending the file with the EOF block
+    private static final class BlockOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[MAX_BLOCK_INPUT];
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(1 << 16);
+        private int length;
+
+        BlockOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (length == buffer.length) flushBlock();
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            while (count > 0) {
+                if (length == buffer.length) flushBlock();
+                int n = Math.min(count, buffer.length - length);
+                System.arraycopy(bytes, offset, buffer, length, n);
+                length += n;
+                offset += n;
+                count -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBlock();
+                out.write(EOF_BLOCK);
+            } finally {
+                out.close();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (length == 0) return;
+            compressed.reset();
+            compressBlocks(buffer, 0, length, compressed);
+            compressed.writeTo(out);
+            length = 0;
+        }
+    }
+
+    // Growable long array for the block offsets
+    private static final class LongList {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
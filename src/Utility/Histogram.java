@@ -0,0 +1,113 @@
+package Utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram of non-negative long values (latencies, sizes, counts) in log-linear buckets, the
+// layout HdrHistogram uses: every power of two is split into SUB_BUCKETS equal buckets, so any value is
+// kept to within 1/SUB_BUCKETS (about 3%) of itself with a fixed 15 KB of counters. Values below
+// SUB_BUCKETS are exact. Recording is a few atomic adds; percentiles are read from a snapshot.
+public class Histogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS; // enough for Long.MAX_VALUE
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    // Records `times` occurrences of the value at once, e.g. counts gathered locally by a worker
+    public void record(long value, long times) {
+        if (value < 0) throw new IllegalArgumentException("Histogram values cannot be negative: " + value);
+        if (times <= 0) return;
+
+        counts.addAndGet(bucket(value), times);
+        sum.add(value * times);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // another thread raised the maximum; compare again
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BITS
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)); // in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    // Largest value that falls into the bucket
+    private static long highestIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        long next = (mantissa + 1) << shift;
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    // Point-in-time copy of the counters. The count is summed from the buckets, so percentiles always
+    // agree with it even while other threads keep recording.
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() { return count; }
+        public long max() { return max; }
+        public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+        // Smallest recorded value that at least `percentile` percent of the values do not exceed (to
+        // within the bucket width); 0 for an empty histogram
+        public long percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            if (count == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), max);
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", mean=" + String.format("%.1f", mean()) + ", p50=" + percentile(50)
+                    + ", p90=" + percentile(90) + ", p99=" + percentile(99) + ", p99.9=" + percentile(99.9)
+                    + ", max=" + max;
+        }
+    }
+}
@@ -4,21 +4,92 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+// Application log in logs/app.log, in one of two modes:
+//  - synchronous (initialize): every call formats, writes and flushes its line under a lock
+//  - asynchronous (initializeAsync): callers only put an event on a lock-free RingBuffer; one daemon
+//    thread formats the lines, with the timestamp text cached per second, and flushes once per batch
+// When the ring is full the overflow policy decides: BLOCK waits for room, DROP discards the event and
+// SAMPLE keeps one overflowing event in SAMPLE_EVERY. Warnings and errors always wait rather than being
+// dropped, and the number of dropped events is written to the log.
+//
+// Every line belongs to a category with its own minimum level: the static methods log to "app", and a
+// class with busy log lines takes its own handle, e.g. Logger.category("reader"). Levels are read from the
+// system properties log.level (default INFO) and log.level.<category>, and can be changed at runtime with
+// setLevel. A disabled call costs one volatile read: the Supplier and {} overloads build the message only
+// once the level is known to be enabled.
 public class Logger {
     private static final String LOG_DIR = "logs";
     private static final String LOG_FILE = "app.log";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int MAX_BATCH = 512;                // lines written between two flushes at most
+    private static final long IDLE_PARK_NANOS = 1_000_000;   // consumer pause while the ring is empty
+    private static final long FULL_PARK_NANOS = 50_000;      // producer pause while waiting for room
+    private static final int SAMPLE_EVERY = 16;
+
+    private static final String STARTED = "========== TEAM BUILDER APPLICATION STARTED ==========";
+    private static final String CLOSED = "========== TEAM BUILDER APPLICATION CLOSED ==========";
+
+    public enum OverflowPolicy { BLOCK, DROP, SAMPLE }
+
+    public enum Level { DEBUG, INFO, WARNING, ERROR, OFF }
+
+    // Categories by name; created on first use and kept for the life of the application
+    private static final ConcurrentHashMap<String, Category> categories = new ConcurrentHashMap<>();
+    private static volatile Level defaultLevel = parseLevel(System.getProperty("log.level"), Level.INFO);
+    private static final Category APP = category("app");
 
     private static BufferedWriter fileWriter;
-    private static boolean isInitialized = false;
+    private static volatile boolean isInitialized = false;
+
+    // Asynchronous mode (ring == null in synchronous mode)
+    private static volatile RingBuffer<Event> ring;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private static volatile boolean closing;
+    private static Thread consumer;
+    private static final AtomicLong overflowed = new AtomicLong(); // events that found the ring full
+    private static final AtomicLong dropped = new AtomicLong();    // of which discarded, not yet reported
+    private static final AtomicLong totalDropped = new AtomicLong();
+
+    // Timestamp text of the last second formatted; used by the consumer, or under the lock when synchronous
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static long cachedSecond = Long.MIN_VALUE;
+    private static String cachedTimestamp;
 
     private Logger() {
 
     }
 
-    public static void initialize() {
+    public static synchronized void initialize() {
+        if (open()) writeNow(Level.INFO, null, STARTED);
+    }
+
+    // Asynchronous logging through a ring of the given capacity (a power of two)
+    public static synchronized void initializeAsync(int capacity, OverflowPolicy policy) {
+        RingBuffer<Event> buffer = new RingBuffer<>(capacity);
+        if (!open()) return;
+
+        overflowPolicy = policy;
+        closing = false;
+        ring = buffer;
+        consumer = new Thread(Logger::drain, "logger");
+        consumer.setDaemon(true);
+        consumer.start();
+        enqueue(Level.INFO, null, STARTED);
+    }
+
+    private static boolean open() {
+        if (isInitialized) return false;
         try {
             // Create logs directory
             File logDir = new File(LOG_DIR);
@@ -29,44 +100,284 @@ public class Logger {
             File logFile = new File(logDir, LOG_FILE);
             fileWriter = new BufferedWriter(new FileWriter(logFile, true)); // append = true
             isInitialized = true;
-
-            log("INFO", "========== TEAM BUILDER APPLICATION STARTED ==========");
+            return true;
         } catch (IOException e) {
             System.err.println("Failed to initialize logger: " + e.getMessage());
+            return false;
         }
     }
 
-    public static void log(String level, String message) {
+    // The handle of a category, created with the level of its log.level.<name> property if one is set
+    public static Category category(String name) {
+        return categories.computeIfAbsent(name, Category::new);
+    }
+
+    // Minimum level of every category that has no level of its own
+    public static synchronized void setLevel(Level level) {
+        if (level == null) throw new IllegalArgumentException("Level cannot be null");
+        defaultLevel = level;
+        for (Category category : categories.values()) category.refresh();
+    }
+
+    // Minimum level of one category; null makes it follow the default level again
+    public static synchronized void setLevel(String category, Level level) {
+        Category handle = category(category);
+        handle.configured = level;
+        handle.refresh();
+    }
+
+    public static boolean isEnabled(Level level) { return APP.isEnabled(level); }
+
+    public static void log(Level level, String message) { APP.log(level, message); }
+
+    public static void info(String message) { APP.info(message); }
+    public static void info(Supplier<String> message) { APP.info(message); }
+    public static void info(String pattern, Object arg) { APP.info(pattern, arg); }
+    public static void info(String pattern, Object arg1, Object arg2) { APP.info(pattern, arg1, arg2); }
+    public static void info(String pattern, Object... args) { APP.info(pattern, args); }
+
+    public static void warning(String message) { APP.warning(message); }
+    public static void warning(Supplier<String> message) { APP.warning(message); }
+    public static void warning(String pattern, Object arg) { APP.warning(pattern, arg); }
+    public static void warning(String pattern, Object arg1, Object arg2) { APP.warning(pattern, arg1, arg2); }
+    public static void warning(String pattern, Object... args) { APP.warning(pattern, args); }
+
+    public static void error(String message) { APP.error(message); }
+    public static void error(Supplier<String> message) { APP.error(message); }
+    public static void error(String pattern, Object arg) { APP.error(pattern, arg); }
+    public static void error(String pattern, Object arg1, Object arg2) { APP.error(pattern, arg1, arg2); }
+    public static void error(String pattern, Object... args) { APP.error(pattern, args); }
+
+    public static void debug(String message) { APP.debug(message); }
+    public static void debug(Supplier<String> message) { APP.debug(message); }
+    public static void debug(String pattern, Object arg) { APP.debug(pattern, arg); }
+    public static void debug(String pattern, Object arg1, Object arg2) { APP.debug(pattern, arg1, arg2); }
+    public static void debug(String pattern, Object... args) { APP.debug(pattern, args); }
+
+    // Events discarded by the overflow policy since the logger started
+    public static long droppedEvents() {
+        return totalDropped.get();
+    }
+
+    public static synchronized void close() {
         if (!isInitialized) return;
+        if (ring != null) {
+            Event last = new Event(System.currentTimeMillis(), Level.INFO, null, CLOSED);
+            while (!ring.offer(last)) LockSupport.parkNanos(FULL_PARK_NANOS); // never dropped
 
+            closing = true; // the consumer writes out what is queued, then stops
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ring = null;
+        } else {
+            writeNow(Level.INFO, null, CLOSED);
+        }
+
+        isInitialized = false;
         try {
-            String timestamp = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            fileWriter.close();
+        } catch (IOException e) {
+            System.err.println("Error closing log file: " + e.getMessage());
+        }
+    }
+
+    // Writes the line now (synchronous mode) or queues it for the consumer thread
+    private static void emit(Level level, String category, String message) {
+        if (!isInitialized) return;
+        if (ring == null) {
+            writeNow(level, category, message);
+        } else {
+            enqueue(level, category, message);
+        }
+    }
+
+    private static void enqueue(Level level, String category, String message) {
+        RingBuffer<Event> buffer = ring;
+        if (buffer == null) return; // closed meanwhile
+        Event event = new Event(System.currentTimeMillis(), level, category, message);
+        if (!buffer.offer(event)) overflow(buffer, event);
+    }
+
+    // The ring is full: wait for room or discard the event, as the policy says
+    private static void overflow(RingBuffer<Event> buffer, Event event) {
+        long count = overflowed.getAndIncrement();
+        boolean keep = switch (overflowPolicy) {
+            case BLOCK -> true;
+            case DROP -> false;
+            case SAMPLE -> count % SAMPLE_EVERY == 0;
+        };
+        if (!keep && event.level().compareTo(Level.WARNING) < 0) {
+            dropped.incrementAndGet();
+            totalDropped.incrementAndGet();
+            return;
+        }
+
+        while (!buffer.offer(event)) {
+            if (closing) return; // the consumer is stopping; nothing will make room
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    // Consumer thread: writes whatever is queued in batches, one flush per batch
+    private static void drain() {
+        RingBuffer<Event> buffer = ring;
+        while (true) {
+            boolean stop = closing; // read first, so events queued before close() are still written
+            int written = 0;
+            try {
+                Event event;
+                while (written < MAX_BATCH && (event = buffer.poll()) != null) {
+                    write(event.millis(), event.level(), event.category(), event.message());
+                    written++;
+                }
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    write(System.currentTimeMillis(), Level.WARNING, null,
+                            lost + " log events dropped (log buffer full)");
+                }
+                if (written > 0 || lost > 0) fileWriter.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing to log file: " + e.getMessage());
+            }
 
-            String logMessage = "[" + timestamp + "] [" + level + "] " + message;
+            if (written == MAX_BATCH) continue; // more may be waiting
+            if (stop && written == 0) return;
+            if (written == 0) LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
 
-            fileWriter.write(logMessage);
-            fileWriter.newLine();
+    private static synchronized void writeNow(Level level, String category, String message) {
+        if (!isInitialized) return;
+        try {
+            write(System.currentTimeMillis(), level, category, message);
             fileWriter.flush();
         } catch (IOException e) {
             System.err.println("Error writing to log file: " + e.getMessage());
         }
     }
 
-    public static void info(String message) { log("INFO", message); }
-    public static void warning(String message) { log("WARNING", message); }
-    public static void error(String message) { log("ERROR", message); }
-    public static void debug(String message) { log("DEBUG", message); }
+    // [timestamp] [LEVEL] message, with the category after the level for anything but "app"
+    private static void write(long millis, Level level, String category, String message) throws IOException {
+        fileWriter.write('[');
+        fileWriter.write(timestamp(millis));
+        fileWriter.write("] [");
+        fileWriter.write(level.name());
+        fileWriter.write("] ");
+        if (category != null) {
+            fileWriter.write('[');
+            fileWriter.write(category);
+            fileWriter.write("] ");
+        }
+        fileWriter.write(message);
+        fileWriter.newLine();
+    }
+
+    private static String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZONE).format(TIMESTAMP);
+        }
+        return cachedTimestamp;
+    }
+
+    // Replaces each {} in the pattern with the next argument; placeholders without an argument stay as they are
+    static String format(String pattern, Object... args) {
+        StringBuilder text = new StringBuilder(pattern.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            int at = pattern.indexOf("{}", from);
+            if (at < 0) break;
+            text.append(pattern, from, at).append(arg);
+            from = at + 2;
+        }
+        return text.append(pattern, from, pattern.length()).toString();
+    }
 
-    public static void close() {
+    private static Level parseLevel(String value, Level fallback) {
+        if (value == null || value.isBlank()) return fallback;
         try {
-            if (fileWriter != null) {
-                log("INFO", "========== TEAM BUILDER APPLICATION CLOSED ==========");
-                fileWriter.close();
-                isInitialized = false;
-            }
-        } catch (IOException e) {
-            System.err.println("Error closing log file: " + e.getMessage());
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level '" + value + "', using " + fallback);
+            return fallback;
         }
     }
+
+    // A category's own logging methods. isEnabled is one volatile read, so a disabled debug line with a
+    // Supplier or {} pattern allocates nothing but, at most, the boxes of primitive arguments.
+    public static final class Category {
+        private final String name;
+        private final String tag;           // written in each line; null for "app"
+        private volatile Level configured;  // null: follows the default level
+        private volatile int threshold;     // ordinal of the effective minimum level
+
+        private Category(String name) {
+            this.name = name;
+            this.tag = name.equals("app") ? null : name;
+            this.configured = parseLevel(System.getProperty("log.level." + name), null);
+            refresh();
+        }
+
+        private void refresh() {
+            Level level = configured;
+            threshold = (level != null ? level : defaultLevel).ordinal();
+        }
+
+        public String name() { return name; }
+
+        public boolean isEnabled(Level level) { return level.ordinal() >= threshold; }
+
+        public void log(Level level, String message) {
+            if (isEnabled(level)) emit(level, tag, message);
+        }
+
+        public void log(Level level, Supplier<String> message) {
+            if (isEnabled(level)) emit(level, tag, message.get());
+        }
+
+        public void log(Level level, String pattern, Object... args) {
+            if (isEnabled(level)) emit(level, tag, format(pattern, args));
+        }
+
+        // Fixed-arity forms, so a disabled call does not allocate the varargs array
+        private void logArgs(Level level, String pattern, Object arg) {
+            if (isEnabled(level)) emit(level, tag, format(pattern, arg));
+        }
+
+        private void logArgs(Level level, String pattern, Object arg1, Object arg2) {
+            if (isEnabled(level)) emit(level, tag, format(pattern, arg1, arg2));
+        }
+
+        public void info(String message) { log(Level.INFO, message); }
+        public void info(Supplier<String> message) { log(Level.INFO, message); }
+        public void info(String pattern, Object arg) { logArgs(Level.INFO, pattern, arg); }
+        public void info(String pattern, Object arg1, Object arg2) { logArgs(Level.INFO, pattern, arg1, arg2); }
+        public void info(String pattern, Object... args) { log(Level.INFO, pattern, args); }
+
+        public void warning(String message) { log(Level.WARNING, message); }
+        public void warning(Supplier<String> message) { log(Level.WARNING, message); }
+        public void warning(String pattern, Object arg) { logArgs(Level.WARNING, pattern, arg); }
+        public void warning(String pattern, Object arg1, Object arg2) { logArgs(Level.WARNING, pattern, arg1, arg2); }
+        public void warning(String pattern, Object... args) { log(Level.WARNING, pattern, args); }
+
+        public void error(String message) { log(Level.ERROR, message); }
+        public void error(Supplier<String> message) { log(Level.ERROR, message); }
+        public void error(String pattern, Object arg) { logArgs(Level.ERROR, pattern, arg); }
+        public void error(String pattern, Object arg1, Object arg2) { logArgs(Level.ERROR, pattern, arg1, arg2); }
+        public void error(String pattern, Object... args) { log(Level.ERROR, pattern, args); }
+
+        public void debug(String message) { log(Level.DEBUG, message); }
+        public void debug(Supplier<String> message) { log(Level.DEBUG, message); }
+        public void debug(String pattern, Object arg) { logArgs(Level.DEBUG, pattern, arg); }
+        public void debug(String pattern, Object arg1, Object arg2) { logArgs(Level.DEBUG, pattern, arg1, arg2); }
+        public void debug(String pattern, Object... args) { log(Level.DEBUG, pattern, args); }
+    }
+
+    private record Event(long millis, Level level, String category, String message) {
+    }
 }
@@ -0,0 +1,221 @@
+package Utility;
+
+import javax.management.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Process-wide metrics: counters, gauges and histograms registered by name on first use, e.g.
+//
+//   private static final MetricsRegistry.Counter REJECTS = MetricsRegistry.counter("ingest.rejects");
+//
+// Updates take no lock: counters are LongAdders, gauges a volatile or a callback, and histograms the
+// atomic buckets of Histogram. Hot loops should count into locals and add them once per batch.
+// The registry can be written to a text file on demand (dump) and is published over JMX as the MBean
+// TeamBuilder:type=Metrics, with one attribute per counter and gauge, a few per histogram
+// (<name>.count, .mean, .p50, .p90, .p99, .max) and a dump(path) operation.
+public final class MetricsRegistry {
+
+    public static final String MBEAN_NAME = "TeamBuilder:type=Metrics";
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    // Sorted by name, so dumps and JMX attributes come out grouped by subsystem
+    private static final Map<String, Object> registry = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {
+
+    }
+
+    public static Counter counter(String name) {
+        return register(name, Counter.class, Counter::new);
+    }
+
+    // A gauge the owner sets
+    public static Gauge gauge(String name) {
+        return register(name, Gauge.class, Gauge::new);
+    }
+
+    // A gauge read from a callback whenever it is dumped or queried; replaces an earlier callback
+    public static void gauge(String name, LongSupplier value) {
+        registry.compute(name, (key, existing) -> {
+            if (existing != null && !(existing instanceof ComputedGauge)) {
+                throw new IllegalArgumentException("Metric " + name + " is already registered as another kind");
+            }
+            return (ComputedGauge) value::getAsLong;
+        });
+    }
+
+    public static Histogram histogram(String name) {
+        return register(name, Histogram.class, Histogram::new);
+    }
+
+    private static <T> T register(String name, Class<T> kind, Supplier<T> create) {
+        Object metric = registry.computeIfAbsent(name, n -> create.get());
+        if (!kind.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as another kind");
+        }
+        return kind.cast(metric);
+    }
+
+    // Writes every metric, one per line, replacing the file
+    public static void dump(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# metrics at " + Instant.now());
+            writer.newLine();
+            for (Map.Entry<String, Object> entry : registry.entrySet()) {
+                Object metric = entry.getValue();
+                String kind = metric instanceof Counter ? "counter"
+                        : metric instanceof Histogram ? "histogram" : "gauge";
+                writer.write(kind + " " + entry.getKey() + " " + describe(metric));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String describe(Object metric) {
+        if (metric instanceof Histogram histogram) return histogram.snapshot().toString();
+        return String.valueOf(((LongSupplier) metric).getAsLong());
+    }
+
+    // Publishes the registry on the platform MBean server; later calls do nothing
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(new MetricsMBean(), name);
+        } catch (JMException e) {
+            Logger.warning("Could not publish metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    public static final class Counter implements LongSupplier {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() { value.increment(); }
+        public void add(long amount) { value.add(amount); }
+
+        @Override
+        public long getAsLong() { return value.sum(); }
+    }
+
+    public static final class Gauge implements LongSupplier {
+        private volatile long value;
+
+        public void set(long value) { this.value = value; }
+
+        @Override
+        public long getAsLong() { return value; }
+    }
+
+    private interface ComputedGauge extends LongSupplier {
+    }
+
+    // The registry as a DynamicMBean, so metrics registered later show up without re-registering
+    private static final class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Object metric = registry.get(attribute);
+            if (metric instanceof LongSupplier value) return value.getAsLong();
+
+            int dot = attribute.lastIndexOf('.');
+            if (dot > 0 && registry.get(attribute.substring(0, dot)) instanceof Histogram histogram) {
+                Histogram.Snapshot snapshot = histogram.snapshot();
+                String field = attribute.substring(dot + 1);
+                switch (field) {
+                    case "count": return snapshot.count();
+                    case "mean": return snapshot.mean();
+                    case "max": return snapshot.max();
+                    default:
+                        for (double percentile : PERCENTILES) {
+                            if (field.equals(percentileName(percentile))) return snapshot.percentile(percentile);
+                        }
+                }
+            }
+            throw new AttributeNotFoundException("No metric " + attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // skipped, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) throws MBeanException {
+            if (!action.equals("dump") || params == null || params.length != 1) {
+                throw new MBeanException(new IllegalArgumentException("Unknown operation " + action));
+            }
+            try {
+                Path file = Path.of(String.valueOf(params[0]));
+                dump(file);
+                return file.toAbsolutePath().toString();
+            } catch (IOException e) {
+                throw new MBeanException(e, "Dump failed: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Map.Entry<String, Object> entry : registry.entrySet()) {
+                String name = entry.getKey();
+                if (entry.getValue() instanceof Histogram) {
+                    attributes.add(attribute(name + ".count", "long", "Values recorded"));
+                    attributes.add(attribute(name + ".mean", "double", "Mean value"));
+                    for (double percentile : PERCENTILES) {
+                        attributes.add(attribute(name + "." + percentileName(percentile), "long",
+                                percentile + "th percentile"));
+                    }
+                    attributes.add(attribute(name + ".max", "long", "Largest value"));
+                } else {
+                    attributes.add(attribute(name, "long", entry.getValue() instanceof Counter ? "Counter" : "Gauge"));
+                }
+            }
+            MBeanOperationInfo dump = new MBeanOperationInfo("dump", "Writes every metric to a file",
+                    new MBeanParameterInfo[]{new MBeanParameterInfo("path", "java.lang.String", "Output file")},
+                    "java.lang.String", MBeanOperationInfo.ACTION);
+            return new MBeanInfo(MetricsRegistry.class.getName(), "Team Builder metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[]{dump}, null);
+        }
+
+        private static MBeanAttributeInfo attribute(String name, String type, String description) {
+            return new MBeanAttributeInfo(name, type, description, true, false, false);
+        }
+
+        private static String percentileName(double percentile) {
+            return "p" + (long) percentile;
+        }
+    }
+}
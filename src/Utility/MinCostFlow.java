@@ -0,0 +1,104 @@
+package Utility;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Min-cost max-flow on a small directed graph (successive shortest paths, SPFA for the path search).
+// Edges are stored as forward/backward pairs: edge e and e ^ 1.
+public class MinCostFlow {
+
+    private final int nodeCount;
+    private final int[] firstEdge;
+    private int[] nextEdge = new int[16];
+    private int[] target = new int[16];
+    private long[] capacity = new long[16];
+    private long[] cost = new long[16];
+    private long[] originalCapacity = new long[16];
+    private int edgeCount;
+
+    public MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.firstEdge = new int[nodeCount];
+        Arrays.fill(firstEdge, -1);
+    }
+
+    // Adds an edge and returns its id, which can be passed to flowOn() after solving
+    public int addEdge(int from, int to, long edgeCapacity, long edgeCost) {
+        int id = edgeCount;
+        link(from, to, edgeCapacity, edgeCost);
+        link(to, from, 0, -edgeCost);
+        return id;
+    }
+
+    // Pushes as much flow as possible from source to sink at minimum total cost; returns {flow, cost}
+    public long[] solve(int source, int sink) {
+        long totalFlow = 0;
+        long totalCost = 0;
+        long[] distance = new long[nodeCount];
+        int[] viaEdge = new int[nodeCount];
+        boolean[] queued = new boolean[nodeCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        while (true) {
+            Arrays.fill(distance, Long.MAX_VALUE);
+            Arrays.fill(viaEdge, -1);
+            distance[source] = 0;
+            queue.add(source);
+            queued[source] = true;
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                queued[node] = false;
+                for (int e = firstEdge[node]; e != -1; e = nextEdge[e]) {
+                    if (capacity[e] <= 0) continue;
+                    long candidate = distance[node] + cost[e];
+                    if (candidate < distance[target[e]]) {
+                        distance[target[e]] = candidate;
+                        viaEdge[target[e]] = e;
+                        if (!queued[target[e]]) {
+                            queued[target[e]] = true;
+                            queue.add(target[e]);
+                        }
+                    }
+                }
+            }
+
+            if (distance[sink] == Long.MAX_VALUE) break; // no augmenting path left
+
+            long push = Long.MAX_VALUE;
+            for (int node = sink; node != source; node = target[viaEdge[node] ^ 1]) {
+                push = Math.min(push, capacity[viaEdge[node]]);
+            }
+            for (int node = sink; node != source; node = target[viaEdge[node] ^ 1]) {
+                capacity[viaEdge[node]] -= push;
+                capacity[viaEdge[node] ^ 1] += push;
+            }
+            totalFlow += push;
+            totalCost += push * distance[sink];
+        }
+        return new long[]{totalFlow, totalCost};
+    }
+
+    // Flow currently routed through an edge returned by addEdge()
+    public long flowOn(int edge) {
+        return originalCapacity[edge] - capacity[edge];
+    }
+
+    private void link(int from, int to, long edgeCapacity, long edgeCost) {
+        if (edgeCount == target.length) {
+            int grown = edgeCount * 2;
+            nextEdge = Arrays.copyOf(nextEdge, grown);
+            target = Arrays.copyOf(target, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+            originalCapacity = Arrays.copyOf(originalCapacity, grown);
+        }
+        target[edgeCount] = to;
+        capacity[edgeCount] = edgeCapacity;
+        originalCapacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        nextEdge[edgeCount] = firstEdge[from];
+        firstEdge[from] = edgeCount;
+        edgeCount++;
+    }
+}
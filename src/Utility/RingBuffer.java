@@ -0,0 +1,65 @@
+package Utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded ring buffer for many producers and one consumer, without locks. Every slot carries a sequence
+// number that says whose turn it is: a producer claims the slot at the tail with one CAS, fills it and
+// hands it over by publishing the next sequence; the consumer takes it and hands it back a lap later.
+// A full ring makes offer() fail instead of waiting, so the caller decides what to do.
+public class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next position to claim
+    private long head;                                // next position to take; consumer thread only
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2");
+        }
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    // Adds the value, or returns false if the ring is full
+    public boolean offer(T value) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long gap = sequences.get(index) - position;
+            if (gap == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = value;
+                    sequences.set(index, position + 1); // publishes the value to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (gap < 0) {
+                return false; // the consumer has not freed this slot yet
+            } else {
+                position = tail.get(); // another producer took it
+            }
+        }
+    }
+
+    // Takes the oldest value, or returns null if the ring is empty. Only one thread may call this.
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) return null;
+
+        T value = (T) slots[index];
+        slots[index] = null;
+        sequences.set(index, head + slots.length); // free for the producer one lap ahead
+        head++;
+        return value;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
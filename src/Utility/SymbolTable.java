@@ -0,0 +1,54 @@
+package Utility;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary that maps repeated strings (game names, ...) to dense int ids in order of first appearance.
+// Rule checks compare and count the ids; exports decode them back with name().
+// Safe to share between threads: the parallel CSV readers intern into the same table.
+public class SymbolTable {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile int size;
+
+    // Id of the symbol, adding it on first sight
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) return id;
+
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id != null) return id;
+
+            // Name first, then the volatile array reference and size, and the id last: whoever can see the
+            // id (through ids or a column written after intern returned) also sees its name
+            int next = size;
+            String[] current = next == names.length ? Arrays.copyOf(names, next * 2) : names;
+            current[next] = symbol;
+            names = current;
+            size = next + 1;
+            ids.put(symbol, next);
+            return next;
+        }
+    }
+
+    // Id of an already known symbol, or -1
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    // Reads the array reference once, so a concurrent resize or size update cannot make a known id fail
+    public String name(int id) {
+        String[] current = names;
+        String name = id >= 0 && id < current.length ? current[id] : null;
+        if (name == null) throw new IllegalArgumentException("Unknown symbol id: " + id);
+        return name;
+    }
+
+    // Number of symbols so far; ids run from 0 to size() - 1
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,73 @@
+package Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogCompactorTest {
+
+    private static final String HEADER = "ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType";
+
+    @TempDir
+    Path dir;
+
+    private final Object writeLock = new Object();
+
+    @Test
+    void compactDropsTombstonesAndTheRowsTheyDelete() throws IOException {
+        Path file = write(HEADER, row("P1", 1), row("P2", 2), ParticipantLog.tombstoneRow("P1"), "",
+                row("P3", 3), ParticipantLog.tombstoneRow("p3"), row("P3", 4));
+        AtomicInteger swaps = new AtomicInteger();
+
+        new LogCompactor(file, 0.5, 1, writeLock, () -> { }, swaps::incrementAndGet).compact();
+
+        assertEquals(List.of(HEADER, row("P2", 2), row("P3", 4)), Files.readAllLines(file));
+        assertEquals(1, swaps.get());
+        assertFalse(Files.exists(Path.of(file + ".compact.tmp")));
+    }
+
+    // Lines a writer appends after the cut are not folded: they are copied over verbatim, tombstones
+    // included, so the swap never loses or reorders an append
+    @Test
+    void linesAppendedDuringCompactionAreCopiedAsTheyAre() throws IOException {
+        Path file = write(HEADER, row("P1", 1), row("P2", 2), ParticipantLog.tombstoneRow("P1"));
+        List<String> tail = List.of(row("P4", 4), ParticipantLog.tombstoneRow("P2"), row("P5", 5));
+        AtomicInteger stops = new AtomicInteger();
+
+        // stopWriters runs once to mark the cut and again right before the swap; append in between
+        Runnable stopWriters = () -> {
+            if (stops.incrementAndGet() == 2) append(file, tail);
+        };
+        new LogCompactor(file, 0.5, 1, writeLock, stopWriters, () -> { }).compact();
+
+        assertEquals(List.of(HEADER, row("P2", 2), row("P4", 4), ParticipantLog.tombstoneRow("P2"), row("P5", 5)),
+                Files.readAllLines(file));
+        assertEquals(2, stops.get());
+    }
+
+    private Path write(String... lines) throws IOException {
+        return Files.writeString(dir.resolve("participants.csv"), String.join("\n", lines) + "\n", StandardCharsets.UTF_8);
+    }
+
+    private static void append(Path file, List<String> lines) {
+        try {
+            Files.writeString(file, String.join("\n", lines) + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String row(String id, int skill) {
+        return id + ",Name,e@x.com,Chess," + skill + ",ATTACKER,50,BALANCED";
+    }
+}
@@ -0,0 +1,91 @@
+package Service;
+
+import Model.Participant;
+import Model.PersonalityType;
+import Model.RoleType;
+import Model.Team;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenSlotDirectoryTest {
+
+    private static final String[] GAMES = {"Valorant", "Chess", "FIFA", "DOTA 2", "CS:GO", "Basketball"};
+    private static final int TEAM_SIZE = 5;
+
+    // findBest must score exactly as well as trying every open legal team, on skewed random teams
+    // (mostly one game, so the same-game rule keeps pruning) while teams keep filling up
+    @Test
+    void findBestMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 5; trial++) {
+            OpenSlotDirectory directory = new OpenSlotDirectory(TEAM_SIZE);
+            List<Team> teams = new ArrayList<>();
+            for (int t = 0; t < 500; t++) {
+                Team team = new Team(t + 1);
+                int members = random.nextInt(TEAM_SIZE);
+                for (int m = 0; m < members; m++) {
+                    Participant p = randomParticipant(random, "P" + t + "_" + m);
+                    if (!TeamRules.breaksRules(team.getComposition(), p)) team.addMember(p);
+                }
+                teams.add(team);
+                directory.update(team);
+            }
+
+            for (int q = 0; q < 1000; q++) {
+                Participant p = randomParticipant(random, "Q" + q);
+                Team found = directory.findBest(p);
+                double best = bruteForceBest(teams, p);
+
+                if (found == null) {
+                    assertEquals(Double.NEGATIVE_INFINITY, best, "missed an open team for " + p.getId());
+                    continue;
+                }
+                assertFalse(TeamRules.breaksRules(found.getComposition(), p), "picked a team that breaks the rules");
+                assertTrue(found.getComposition().getSize() < TEAM_SIZE, "picked a full team");
+                assertEquals(best, TeamRules.calculateScore(found.getComposition(), p), 1e-9);
+
+                if (q % 3 == 0) {
+                    found.addMember(p);
+                    directory.update(found);
+                }
+            }
+        }
+    }
+
+    @Test
+    void fullTeamsAreNeverOffered() {
+        OpenSlotDirectory directory = new OpenSlotDirectory(2);
+        Team team = new Team(1);
+        team.addMember(participant("A", "Chess"));
+        team.addMember(participant("B", "FIFA"));
+        directory.update(team);
+
+        assertNull(directory.findBest(participant("C", "DOTA 2")));
+    }
+
+    private static double bruteForceBest(List<Team> teams, Participant p) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (Team team : teams) {
+            if (team.getComposition().getSize() >= TEAM_SIZE || TeamRules.breaksRules(team.getComposition(), p)) continue;
+            best = Math.max(best, TeamRules.calculateScore(team.getComposition(), p));
+        }
+        return best;
+    }
+
+    private static Participant randomParticipant(Random random, String id) {
+        String game = random.nextInt(10) < 8 ? "Valorant" : GAMES[random.nextInt(GAMES.length)];
+        RoleType[] roles = RoleType.values();
+        PersonalityType[] personalities = PersonalityType.values();
+        return new Participant(id, "Name", "e@x.com", game, 1 + random.nextInt(10),
+                roles[random.nextInt(roles.length)], 50, personalities[random.nextInt(personalities.length)]);
+    }
+
+    private static Participant participant(String id, String game) {
+        return new Participant(id, "Name", "e@x.com", game, 5, RoleType.ATTACKER, 50, PersonalityType.BALANCED);
+    }
+}
@@ -0,0 +1,145 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.RoleType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFileReadCallableTest {
+
+    private static final String HEADER = "ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType";
+
+    @TempDir
+    Path dir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parseLineReportsEachStatus() {
+        ParticipantTable table = new ParticipantTable();
+
+        assertEquals(RowStatus.ACCEPTED, parse("P1,Ann,a@x.com,Chess,7,attacker,80,Leader", table));
+        assertEquals(RowStatus.BLANK, parse("   ", table));
+        assertEquals(RowStatus.TOMBSTONE, parse("#DELETED,P1", table));
+        assertEquals(RowStatus.WRONG_COLUMN_COUNT, parse("P2,Bob,b@x.com,Chess,7", table));
+        assertEquals(RowStatus.WRONG_COLUMN_COUNT, parse("P2,Bob,b@x.com,Chess,7,ATTACKER,80,", table));
+        assertEquals(RowStatus.INVALID_NUMBER, parse("P2,Bob,b@x.com,Chess,seven,ATTACKER,80,LEADER", table));
+        assertEquals(RowStatus.INVALID_NUMBER, parse("P2,Bob,b@x.com,Chess,99999999999,ATTACKER,80,LEADER", table));
+        assertEquals(RowStatus.INVALID_NUMBER, parse("P2,Bob,b@x.com,Chess,7,ATTACKER,high,LEADER", table));
+        assertEquals(RowStatus.INVALID_ENUM, parse("P2,Bob,b@x.com,Chess,7,GOALKEEPER,80,LEADER", table));
+        assertEquals(RowStatus.INVALID_ENUM, parse("P2,Bob,b@x.com,Chess,7,ATTACKER,80,DREAMER", table));
+
+        // Only the accepted row reaches the table, trimmed and with its enums resolved
+        assertEquals(1, table.size());
+        assertEquals("P1", table.id(0));
+        assertEquals(RoleType.ATTACKER, table.role(0));
+        assertEquals(7, table.skill(0));
+        assertEquals("Chess", table.gameName(table.game(0)));
+    }
+
+    @Test
+    void rejectedRowsGoToTheQuarantineFile() throws Exception {
+        Path csv = write("bad.csv",
+                HEADER,
+                "P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER",
+                "P2,Bob,b@x.com,Chess,seven,ATTACKER,80,LEADER",
+                "",
+                "P3,Cy,c@x.com,FIFA,5,DEFENDER,60,THINKER",
+                "P4,Dee,d@x.com,FIFA",
+                "P5,Eve,e@x.com,FIFA,5,DEFENDER,60,DREAMER");
+
+        ParallelFileReadCallable reader = new ParallelFileReadCallable(csv.toString(), executor, 3);
+        ParticipantTable table = reader.call();
+        ImportReport report = reader.getReport();
+
+        assertEquals(2, table.size());
+        assertEquals(2, report.accepted());
+        assertEquals(3, report.rejected());
+        assertEquals(dir.resolve("bad.rejected.csv"), report.quarantineFile());
+
+        List<String> quarantined = Files.readAllLines(report.quarantineFile(), StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "LineNumber,Status,Reason,Line",
+                "3,INVALID_NUMBER,Invalid number format,\"P2,Bob,b@x.com,Chess,seven,ATTACKER,80,LEADER\"",
+                "6,WRONG_COLUMN_COUNT,Invalid CSV row (expected 8 columns),\"P4,Dee,d@x.com,FIFA\"",
+                "7,INVALID_ENUM,Invalid enum value,\"P5,Eve,e@x.com,FIFA,5,DEFENDER,60,DREAMER\""), quarantined);
+    }
+
+    @Test
+    void cleanImportRemovesAnOldQuarantineFile() throws Exception {
+        Path csv = write("clean.csv", HEADER, "P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER");
+        Path quarantine = Files.writeString(dir.resolve("clean.rejected.csv"), "left over");
+
+        ParallelFileReadCallable reader = new ParallelFileReadCallable(csv.toString(), executor, 2);
+        reader.call();
+
+        assertEquals(0, reader.getReport().rejected());
+        assertNull(reader.getReport().quarantineFile());
+        assertFalse(Files.exists(quarantine));
+    }
+
+    // The sequential reader validates, folds tombstones and numbers rejects the same way as call()
+    @Test
+    void readLinesMatchesTheParallelReader() throws Exception {
+        String[] lines = {
+                HEADER,
+                "P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER",
+                "P2,Bob,b@x.com,Chess,x,ATTACKER,80,LEADER",
+                "#DELETED,p1",
+                "P3,Cy,c@x.com,FIFA,5,DEFENDER,60,THINKER",
+                "P1,Ann,a@x.com,Chess,8,ATTACKER,80,LEADER"};
+        Path csv = write("same.csv", lines);
+
+        ParallelFileReadCallable parallel = new ParallelFileReadCallable(csv.toString(), executor, 4);
+        ParticipantTable fromFile = parallel.call();
+        ParallelFileReadCallable sequential = new ParallelFileReadCallable(csv.toString(), executor, 1);
+        ParticipantTable fromReader = sequential.readLines(new BufferedReader(new StringReader(String.join("\n", lines))));
+
+        assertEquals(List.of("P3", "P1"), ids(fromFile));
+        assertEquals(ids(fromFile), ids(fromReader));
+        assertEquals(8, fromReader.skill(1));
+        assertEquals(parallel.getReport(), sequential.getReport());
+    }
+
+    @Test
+    void quarantinePathDropsCsvAndGzipSuffixes() {
+        assertEquals(Path.of("data/p.rejected.csv"), ParallelFileReadCallable.quarantinePath("data/p.csv"));
+        assertEquals(Path.of("data/p.rejected.csv"), ParallelFileReadCallable.quarantinePath("data/p.csv.gz"));
+        assertEquals(Path.of("data/p.txt.rejected.csv"), ParallelFileReadCallable.quarantinePath("data/p.txt"));
+    }
+
+    private static RowStatus parse(String line, ParticipantTable table) {
+        return ParallelFileReadCallable.parseLine(line, table);
+    }
+
+    private static List<String> ids(ParticipantTable table) {
+        return table.participants().stream().map(p -> p.getId()).toList();
+    }
+
+    private Path write(String name, String... lines) throws Exception {
+        return Files.writeString(dir.resolve(name), String.join("\n", lines) + "\n", StandardCharsets.UTF_8);
+    }
+}
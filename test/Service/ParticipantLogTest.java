@@ -0,0 +1,72 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantLogTest {
+
+    @Test
+    void tombstoneDeletesOnlyTheRowsAboveIt() {
+        ParticipantTable table = table("P1", "P2", "P1", "P3", "P1");
+        // #DELETED,p1 read after the first four rows: rows 0 and 2 die, the re-added P1 at row 4 lives
+        BitSet dead = ParticipantLog.deadRows(table, List.of(new ParticipantLog.Tombstone("p1", 4)));
+
+        assertEquals(bits(0, 2), dead);
+        assertEquals(List.of("P2", "P3", "P1"), ids(ParticipantLog.compact(table, dead)));
+        assertArrayEquals(new int[]{-1, 0, -1, 1, 2}, ParticipantLog.rowMap(table.size(), dead));
+    }
+
+    @Test
+    void laterTombstonesOnlySeeRowsStillAlive() {
+        ParticipantTable table = table("P1", "P2", "P1", "P2");
+        BitSet dead = ParticipantLog.deadRows(table, List.of(
+                new ParticipantLog.Tombstone("P1", 1),   // deletes row 0
+                new ParticipantLog.Tombstone("P1", 1),   // nothing left to delete
+                new ParticipantLog.Tombstone("P9", 2),   // unknown ID
+                new ParticipantLog.Tombstone(" p2 ", 4))); // rows 1 and 3
+
+        assertEquals(bits(0, 1, 3), dead);
+        assertEquals(List.of("P1"), ids(ParticipantLog.compact(table, dead)));
+    }
+
+    @Test
+    void noTombstonesKeepsTheTable() {
+        ParticipantTable table = table("P1", "P2");
+        BitSet dead = ParticipantLog.deadRows(table, List.of());
+
+        assertTrue(dead.isEmpty());
+        assertSame(table, ParticipantLog.compact(table, dead));
+    }
+
+    @Test
+    void tombstoneRowRoundTripsQuotedIds() {
+        assertEquals("P1", ParticipantLog.tombstoneId(ParticipantLog.tombstoneRow("P1")));
+        assertEquals("a,\"b\"", ParticipantLog.tombstoneId(ParticipantLog.tombstoneRow("a,\"b\"")));
+        assertNull(ParticipantLog.tombstoneId("P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER"));
+    }
+
+    private static ParticipantTable table(String... ids) {
+        ParticipantTable table = new ParticipantTable();
+        for (String id : ids) {
+            table.add(id, "Name", "e@x.com", "Chess", 5, RoleType.ATTACKER, 50, PersonalityType.BALANCED);
+        }
+        return table;
+    }
+
+    private static List<String> ids(ParticipantTable table) {
+        return table.participants().stream().map(p -> p.getId()).toList();
+    }
+
+    private static BitSet bits(int... rows) {
+        BitSet bits = new BitSet();
+        for (int row : rows) bits.set(row);
+        return bits;
+    }
+}
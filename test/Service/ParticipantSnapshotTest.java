@@ -0,0 +1,136 @@
+package Service;
+
+import Model.ParticipantTable;
+import Model.PersonalityType;
+import Model.RoleType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantSnapshotTest {
+
+    private static final String HEADER = "ID,Name,Email,PreferredGame,SkillLevel,Role,PersonalityScore,PersonalityType";
+
+    @TempDir
+    Path dir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void roundTripKeepsEveryColumn() throws IOException {
+        ParticipantTable table = new ParticipantTable();
+        table.add("P1", "Zoë \"Z\" Ñúñez", "z@x.com", "Chess", 7, RoleType.STRATEGIST, 91, PersonalityType.LEADER);
+        table.add("P2", "", "b@x.com", "DOTA 2", -3, RoleType.COORDINATOR, 0, PersonalityType.SOCIALIZER);
+        table.add("P3", "Cy", "c@x.com", "Chess", 10, RoleType.DEFENDER, 55, PersonalityType.THINKER);
+
+        Path path = dir.resolve("table.snap");
+        ParticipantSnapshot.write(table, path);
+        ParticipantTable read = ParticipantSnapshot.read(path);
+
+        assertEquals(table.size(), read.size());
+        for (int row = 0; row < table.size(); row++) {
+            assertEquals(table.id(row), read.id(row));
+            assertEquals(table.name(row), read.name(row));
+            assertEquals(table.email(row), read.email(row));
+            assertEquals(table.gameName(table.game(row)), read.gameName(read.game(row)));
+            assertEquals(table.skill(row), read.skill(row));
+            assertEquals(table.role(row), read.role(row));
+            assertEquals(table.score(row), read.score(row));
+            assertEquals(table.personality(row), read.personality(row));
+        }
+    }
+
+    @Test
+    void emptyTableRoundTrips() throws IOException {
+        Path path = dir.resolve("empty.snap");
+        ParticipantSnapshot.write(new ParticipantTable(), path);
+        assertEquals(0, ParticipantSnapshot.read(path).size());
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        ParticipantTable table = new ParticipantTable();
+        table.add("P1", "Ann", "a@x.com", "Chess", 7, RoleType.ATTACKER, 80, PersonalityType.LEADER);
+        Path path = dir.resolve("cut.snap");
+        ParticipantSnapshot.write(table, path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> ParticipantSnapshot.read(path));
+    }
+
+    // Only a snapshot stamped with the CSV's exact size and modification time counts as current
+    @Test
+    void snapshotIsCurrentOnlyForTheExactSource() throws IOException {
+        Path csv = csv("P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER");
+        ParticipantTable table = new ParticipantTable();
+        table.add("P1", "Ann", "a@x.com", "Chess", 7, RoleType.ATTACKER, 80, PersonalityType.LEADER);
+        Path path = dir.resolve("p.csv.snap");
+        ParticipantSnapshot.write(table, path, ParticipantSnapshot.Source.of(csv));
+
+        assertNotNull(ParticipantSnapshot.readIfCurrent(path, ParticipantSnapshot.Source.of(csv)));
+
+        // Newer CSV, same size
+        FileTime modified = Files.getLastModifiedTime(csv);
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(modified.toMillis() + 5_000));
+        assertNull(ParticipantSnapshot.readIfCurrent(path, ParticipantSnapshot.Source.of(csv)));
+
+        // Same modification time, different size (an append within one clock tick)
+        Files.writeString(csv, "P2,Bob,b@x.com,FIFA,4,DEFENDER,60,THINKER\n", StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(csv, modified);
+        assertNull(ParticipantSnapshot.readIfCurrent(path, ParticipantSnapshot.Source.of(csv)));
+
+        // A snapshot older than the CSV is stale too, not just a newer one
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(modified.toMillis() - 5_000));
+        assertNull(ParticipantSnapshot.readIfCurrent(path, ParticipantSnapshot.Source.of(csv)));
+    }
+
+    @Test
+    void loadParticipantsReparsesWhenTheCsvChanged() throws Exception {
+        Path csv = csv("P1,Ann,a@x.com,Chess,7,ATTACKER,80,LEADER");
+        Path snapshot = Path.of(csv + ".snap");
+        CSVHandler handler = new CSVHandler();
+
+        assertEquals(1, handler.loadParticipants(csv.toString(), executor, 2).size());
+        assertTrue(Files.exists(snapshot));
+        assertEquals(1, handler.loadParticipants(csv.toString(), executor, 2).size());
+
+        // Append a row but keep the old modification time, and make the snapshot look newer than the CSV
+        FileTime modified = Files.getLastModifiedTime(csv);
+        Files.writeString(csv, "P2,Bob,b@x.com,FIFA,4,DEFENDER,60,THINKER\n", StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(csv, modified);
+        Files.setLastModifiedTime(snapshot, FileTime.fromMillis(modified.toMillis() + 60_000));
+
+        ParticipantTable reloaded = handler.loadParticipants(csv.toString(), executor, 2);
+        assertEquals(2, reloaded.size());
+        assertEquals("P2", reloaded.id(1));
+        assertEquals(2, ParticipantSnapshot.readIfCurrent(snapshot, ParticipantSnapshot.Source.of(csv)).size());
+    }
+
+    private Path csv(String... rows) throws IOException {
+        return Files.writeString(dir.resolve("p.csv"), HEADER + "\n" + String.join("\n", rows) + "\n",
+                StandardCharsets.UTF_8);
+    }
+}
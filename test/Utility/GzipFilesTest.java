@@ -0,0 +1,110 @@
+package Utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipFilesTest {
+
+    @TempDir
+    Path dir;
+
+    // Several blocks' worth of text, so members split mid-line
+    private static byte[] sample() {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            text.append('P').append(i).append(",Name_").append(random.nextInt(1000)).append(",Chess,")
+                    .append(1 + random.nextInt(10)).append(",ATTACKER,50,LEADER\n");
+        }
+        return text.toString().getBytes();
+    }
+
+    @Test
+    void blocksRoundTripThroughInflateBlocks() throws IOException {
+        byte[] bytes = sample();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GzipFiles.compressBlocks(bytes, 0, bytes.length, out);
+        out.writeBytes(GzipFiles.eofBlock());
+        Path file = Files.write(dir.resolve("rows.csv.gz"), out.toByteArray());
+
+        long[] offsets = GzipFiles.blockOffsets(file);
+        assertNotNull(offsets);
+        assertTrue(offsets.length > 3, "expected several members");
+        assertEquals(0, offsets[0]);
+        assertEquals(Files.size(file), offsets[offsets.length - 1]);
+
+        // Any run of whole members inflates on its own; together they give back the input
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int middle = offsets.length / 2;
+            inflated.writeBytes(GzipFiles.inflateBlocks(channel, offsets[0], offsets[middle]));
+            inflated.writeBytes(GzipFiles.inflateBlocks(channel, offsets[middle], offsets[offsets.length - 1]));
+        }
+        assertArrayEquals(bytes, inflated.toByteArray());
+    }
+
+    @Test
+    void blockOutputIsReadableAsPlainGzip() throws IOException {
+        byte[] bytes = sample();
+        Path file = dir.resolve("rows.csv.gz");
+        try (OutputStream out = GzipFiles.openOutput(file)) {
+            out.write(bytes, 0, 1000);
+            out.write(bytes, 1000, bytes.length - 1000);
+        }
+
+        assertTrue(GzipFiles.isGzip(file));
+        assertNotNull(GzipFiles.blockOffsets(file));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+        try (InputStream in = GzipFiles.openInput(file)) {
+            assertArrayEquals(bytes, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void plainFilesAreNotBlockGzip() throws IOException {
+        Path plain = Files.write(dir.resolve("rows.csv"), sample());
+        assertFalse(GzipFiles.isGzip(plain));
+        assertNull(GzipFiles.blockOffsets(plain));
+        try (InputStream in = GzipFiles.openInput(plain)) {
+            assertArrayEquals(sample(), in.readAllBytes());
+        }
+
+        // Ordinary gzip has no BC field, so it cannot be split into blocks
+        Path gzip = dir.resolve("plain.csv.gz");
+        try (OutputStream out = new java.util.zip.GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write(sample());
+        }
+        assertTrue(GzipFiles.isGzip(gzip));
+        assertNull(GzipFiles.blockOffsets(gzip));
+    }
+
+    @Test
+    void corruptBlockIsReported() throws IOException {
+        byte[] bytes = sample();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GzipFiles.compressBlocks(bytes, 0, bytes.length, out);
+        byte[] compressed = out.toByteArray();
+        compressed[40] ^= 0x55; // inside the first member's deflate data
+        Path file = Files.write(dir.resolve("bad.csv.gz"), compressed);
+
+        long[] offsets = GzipFiles.blockOffsets(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> GzipFiles.inflateBlocks(channel, offsets[0], offsets[1]));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package Utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (long v = 0; v < 32; v++) histogram.record(v);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(32, snapshot.count());
+        assertEquals(31, snapshot.max());
+        assertEquals(15.5, snapshot.mean(), 1e-9);
+        assertEquals(15, snapshot.percentile(50));
+        assertEquals(0, snapshot.percentile(0));
+        assertEquals(31, snapshot.percentile(100));
+    }
+
+    // A lone value reads back as the top of its bucket: never below it, and at most 1/32 above it
+    @Test
+    void bucketsStayWithinTheirRelativeWidth() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            Histogram histogram = new Histogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE); // keeps the max clamp out of the way
+
+            long read = histogram.snapshot().percentile(50);
+            assertTrue(read >= value, value + " read back as " + read);
+            assertTrue(read - value <= value / 32, value + " read back as " + read);
+        }
+    }
+
+    @Test
+    void bucketEdgesAroundPowersOfTwo() {
+        for (int exponent = 5; exponent < 63; exponent++) {
+            long power = 1L << exponent;
+            assertEquals(power + (power >> 5) - 1, readBack(power));
+            assertEquals(power - 1, readBack(power - 1));
+        }
+        assertEquals(Long.MAX_VALUE, readBack(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentilesMatchSortedValuesWithinBucketError() {
+        Random random = new Random(11);
+        Histogram histogram = new Histogram();
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.abs(random.nextGaussian() * 10_000) + random.nextInt(5);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(values.length, snapshot.count());
+        assertEquals(values[values.length - 1], snapshot.max());
+        for (double percentile : new double[]{1, 10, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long read = snapshot.percentile(percentile);
+            assertTrue(read >= exact && read - exact <= exact / 32, "p" + percentile + ": " + read + " vs " + exact);
+        }
+    }
+
+    @Test
+    void countsRepeatsAndRejectsBadInput() {
+        Histogram histogram = new Histogram();
+        histogram.record(100, 9);
+        histogram.record(5, 0); // ignored
+        histogram.record(1);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10, snapshot.count());
+        assertEquals(90.1, snapshot.mean(), 1e-9);
+        assertEquals(1, snapshot.percentile(10));
+        assertEquals(100, snapshot.percentile(11)); // 100 is the top of its bucket and the max
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.percentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().percentile(99));
+    }
+
+    private static long readBack(long value) {
+        Histogram histogram = new Histogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.snapshot().percentile(50);
+    }
+}
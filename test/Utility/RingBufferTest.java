@@ -0,0 +1,80 @@
+package Utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void offerFailsWhenFullAndPollKeepsOrder() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i));
+        assertFalse(ring.offer(4));
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4)); // the freed slot is reused a lap later
+        for (int i = 1; i <= 4; i++) assertEquals(i, ring.poll());
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(6));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(1));
+    }
+
+    // Every value from every producer arrives exactly once, and each producer's values arrive in the
+    // order it offered them, although the small ring is full most of the time
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        RingBuffer<long[]> ring = new RingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long[] value = {producer, i};
+                    while (!ring.offer(value)) Thread.yield(); // yield, not spin: the build may have one core
+                }
+            });
+            thread.setDaemon(true); // a failed assertion must not leave producers spinning
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] next = new int[producers];
+        long received = 0;
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        start.countDown();
+        while (received < (long) producers * perProducer) {
+            long[] value = ring.poll();
+            if (value == null) {
+                assertTrue(System.nanoTime() < deadline, "consumer stalled after " + received + " values");
+                Thread.yield();
+                continue;
+            }
+            int producer = (int) value[0];
+            assertEquals(next[producer], value[1], "producer " + producer + " out of order");
+            next[producer]++;
+            received++;
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertNull(ring.poll());
+        for (int p = 0; p < producers; p++) assertEquals(perProducer, next[p]);
+    }
+}